@@ -0,0 +1,164 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.socks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reaktivity.specification.socks.internal.SocksFunctions;
+import org.reaktivity.specification.socks.internal.types.SocksAddressFW;
+import org.reaktivity.specification.socks.internal.types.control.SocksRouteExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksBeginExFW;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SocksExtensionBenchmark
+{
+    @Param({
+        "192.168.0.1",
+        "2001:db8:85a3::8a2e:370:7334",
+        "example.com"
+    })
+    public String address;
+
+    private final SocksRouteExFW.Builder routeExRW = new SocksRouteExFW.Builder();
+    private final SocksBeginExFW.Builder beginExRW = new SocksBeginExFW.Builder();
+    private final SocksRouteExFW routeExRO = new SocksRouteExFW();
+    private final SocksBeginExFW beginExRO = new SocksBeginExFW();
+
+    private MutableDirectBuffer writeBuffer;
+    private MutableDirectBuffer routeExBuffer;
+    private MutableDirectBuffer beginExBuffer;
+    private int routeExLimit;
+    private int beginExLimit;
+
+    @Setup(Level.Trial)
+    public void init() throws Exception
+    {
+        writeBuffer = new UnsafeBuffer(new byte[256]);
+        routeExBuffer = new UnsafeBuffer(new byte[256]);
+        beginExBuffer = new UnsafeBuffer(new byte[256]);
+
+        routeExLimit = SocksFunctions.routeEx()
+                                     .address(address)
+                                     .port(8080)
+                                     .buildInto(routeExBuffer, 0);
+
+        beginExLimit = SocksFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .address(address)
+                                     .port(8080)
+                                     .buildInto(beginExBuffer, 0);
+    }
+
+    @Benchmark
+    public int buildRouteEx()
+    {
+        final SocksRouteExFW routeEx = routeExRO.wrap(routeExBuffer, 0, routeExLimit);
+
+        return routeExRW.wrap(writeBuffer, 0, writeBuffer.capacity())
+                        .port(8080)
+                        .portRangeEnd(8080)
+                        .prefixLength(routeEx.prefixLength())
+                        .address(routeEx.address())
+                        .build()
+                        .sizeof();
+    }
+
+    @Benchmark
+    public int buildBeginEx()
+    {
+        final SocksAddressFW address = beginExRO.wrap(beginExBuffer, 0, beginExLimit).address();
+
+        return beginExRW.wrap(writeBuffer, 0, writeBuffer.capacity())
+                        .typeId(0x01)
+                        .port(8080)
+                        .address(address)
+                        .build()
+                        .sizeof();
+    }
+
+    @Benchmark
+    public void readRouteEx(
+        Blackhole blackhole)
+    {
+        final SocksRouteExFW routeEx = routeExRO.wrap(routeExBuffer, 0, routeExLimit);
+        final SocksAddressFW address = routeEx.address();
+
+        blackhole.consume(address.kind());
+        blackhole.consume(address.limit());
+        blackhole.consume(routeEx.port());
+    }
+
+    @Benchmark
+    public void readBeginEx(
+        Blackhole blackhole)
+    {
+        final SocksBeginExFW beginEx = beginExRO.wrap(beginExBuffer, 0, beginExLimit);
+        final SocksAddressFW address = beginEx.address();
+
+        blackhole.consume(beginEx.typeId());
+        blackhole.consume(address.kind());
+        blackhole.consume(address.limit());
+        blackhole.consume(beginEx.port());
+    }
+
+    @Benchmark
+    public int readRouteExPort()
+    {
+        return routeExBuffer.getShort(SocksRouteExFW.FIELD_OFFSET_PORT) & 0xffff;
+    }
+
+    @Benchmark
+    public int readBeginExPort()
+    {
+        return beginExBuffer.getShort(SocksBeginExFW.FIELD_OFFSET_PORT) & 0xffff;
+    }
+
+    public static void main(
+        String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(SocksExtensionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
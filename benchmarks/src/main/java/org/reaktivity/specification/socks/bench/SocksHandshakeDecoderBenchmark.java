@@ -0,0 +1,109 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.socks.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.reaktivity.specification.socks.SocksHandshakeDecoder;
+import org.reaktivity.specification.socks.internal.SocksFunctions;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SocksHandshakeDecoderBenchmark
+{
+    @Param({
+        "192.168.0.1",
+        "2001:db8:85a3::8a2e:370:7334",
+        "example.com"
+    })
+    public String address;
+
+    @Param({
+        "1",
+        "4",
+        "65536"
+    })
+    public int segment;
+
+    private SocksHandshakeDecoder decoder;
+    private DirectBuffer buffer;
+    private int length;
+
+    @Setup(Level.Trial)
+    public void init() throws Exception
+    {
+        final UnsafeBuffer handshake = new UnsafeBuffer(new byte[512]);
+        length = SocksFunctions.handshake()
+                               .method(0x00)
+                               .buildInto(handshake, 0);
+        length += SocksFunctions.request()
+                                .command(0x01)
+                                .address(address)
+                                .port(8080)
+                                .buildInto(handshake, length);
+
+        decoder = new SocksHandshakeDecoder();
+        buffer = handshake;
+    }
+
+    @Benchmark
+    public int decode()
+    {
+        decoder.reset();
+
+        int progress = 0;
+        while (progress < length)
+        {
+            progress = decoder.decode(buffer, progress, Math.min(progress + segment, length));
+        }
+
+        return decoder.port();
+    }
+
+    public static void main(
+        String[] args) throws RunnerException
+    {
+        Options opt = new OptionsBuilder()
+                .include(SocksHandshakeDecoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.socks;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+public final class SocksHandshakeDecoder
+{
+    public static final int STATE_GREETING = 0;
+    public static final int STATE_GREETED = 1;
+    public static final int STATE_REQUEST = 2;
+    public static final int STATE_REQUESTED = 3;
+    public static final int STATE_REJECTED = 4;
+
+    public static final int COMMAND_CONNECT = 0x01;
+    public static final int COMMAND_BIND = 0x02;
+    public static final int COMMAND_UDP_ASSOCIATE = 0x03;
+
+    public static final int ADDRESS_TYPE_IPV4 = 0x01;
+    public static final int ADDRESS_TYPE_DOMAIN_NAME = 0x03;
+    public static final int ADDRESS_TYPE_IPV6 = 0x04;
+
+    public static final int REPLY_GENERAL_FAILURE = 0x01;
+    public static final int REPLY_COMMAND_NOT_SUPPORTED = 0x07;
+    public static final int REPLY_ADDRESS_TYPE_NOT_SUPPORTED = 0x08;
+
+    private static final int SOCKS_VERSION = 5;
+
+    private static final int MAX_ADDRESS_LENGTH = 255;
+    private static final int IPV4_ADDRESS_LENGTH = 4;
+    private static final int IPV6_ADDRESS_LENGTH = 16;
+    private static final int PORT_LENGTH = 2;
+
+    private static final int STEP_VERSION = 0;
+    private static final int STEP_NMETHODS = 1;
+    private static final int STEP_METHODS = 2;
+    private static final int STEP_COMMAND = 3;
+    private static final int STEP_RESERVED = 4;
+    private static final int STEP_ADDRESS_TYPE = 5;
+    private static final int STEP_DOMAIN_NAME_LENGTH = 6;
+    private static final int STEP_ADDRESS = 7;
+    private static final int STEP_PORT = 8;
+
+    private final long[] methods;
+    private final byte[] addressBytes;
+    private final UnsafeBuffer addressRO;
+
+    private int state;
+    private int step;
+    private int pending;
+    private int command;
+    private int addressType;
+    private int addressLength;
+    private int port;
+    private int reply;
+
+    public SocksHandshakeDecoder()
+    {
+        this.methods = new long[4];
+        this.addressBytes = new byte[MAX_ADDRESS_LENGTH];
+        this.addressRO = new UnsafeBuffer(addressBytes);
+    }
+
+    public SocksHandshakeDecoder reset()
+    {
+        methods[0] = methods[1] = methods[2] = methods[3] = 0L;
+        state = STATE_GREETING;
+        step = STEP_VERSION;
+        pending = 0;
+        command = 0;
+        addressType = 0;
+        addressLength = 0;
+        port = 0;
+        reply = 0;
+        return this;
+    }
+
+    public int decode(
+        DirectBuffer buffer,
+        int offset,
+        int limit)
+    {
+        if (state == STATE_GREETED && offset < limit)
+        {
+            state = STATE_REQUEST;
+            step = STEP_VERSION;
+        }
+
+        int progress = offset;
+        while (progress < limit && (state == STATE_GREETING || state == STATE_REQUEST))
+        {
+            progress = state == STATE_GREETING ?
+                decodeGreeting(buffer, progress, limit) :
+                decodeRequest(buffer, progress, limit);
+        }
+        return progress;
+    }
+
+    public int remaining()
+    {
+        int remaining = 0;
+
+        switch (state)
+        {
+        case STATE_GREETING:
+            switch (step)
+            {
+            case STEP_VERSION:
+                remaining = 2;
+                break;
+            case STEP_NMETHODS:
+                remaining = 1;
+                break;
+            default:
+                remaining = pending;
+                break;
+            }
+            break;
+        case STATE_GREETED:
+            remaining = 4;
+            break;
+        case STATE_REQUEST:
+            switch (step)
+            {
+            case STEP_VERSION:
+                remaining = 4;
+                break;
+            case STEP_COMMAND:
+                remaining = 3;
+                break;
+            case STEP_RESERVED:
+                remaining = 2;
+                break;
+            case STEP_ADDRESS_TYPE:
+            case STEP_DOMAIN_NAME_LENGTH:
+                remaining = 1;
+                break;
+            case STEP_ADDRESS:
+                remaining = pending + PORT_LENGTH;
+                break;
+            default:
+                remaining = pending;
+                break;
+            }
+            break;
+        default:
+            break;
+        }
+
+        return remaining;
+    }
+
+    public int state()
+    {
+        return state;
+    }
+
+    public int reply()
+    {
+        return reply;
+    }
+
+    public boolean hasMethod(
+        int method)
+    {
+        return (methods[(method & 0xff) >> 6] & (1L << (method & 0x3f))) != 0L;
+    }
+
+    public int command()
+    {
+        return command;
+    }
+
+    public int addressType()
+    {
+        return addressType;
+    }
+
+    public DirectBuffer address()
+    {
+        addressRO.wrap(addressBytes, 0, addressLength);
+        return addressRO;
+    }
+
+    public int port()
+    {
+        return port;
+    }
+
+    private int decodeGreeting(
+        DirectBuffer buffer,
+        int offset,
+        int limit)
+    {
+        int progress = offset;
+
+        switch (step)
+        {
+        case STEP_VERSION:
+            decodeVersion(buffer.getByte(progress++), STEP_NMETHODS);
+            break;
+        case STEP_NMETHODS:
+            pending = buffer.getByte(progress++) & 0xff;
+            step = STEP_METHODS;
+            if (pending == 0)
+            {
+                state = STATE_GREETED;
+            }
+            break;
+        default:
+            final int length = Math.min(pending, limit - progress);
+            for (int index = 0; index < length; index++)
+            {
+                final int method = buffer.getByte(progress++) & 0xff;
+                methods[method >> 6] |= 1L << (method & 0x3f);
+            }
+            pending -= length;
+            if (pending == 0)
+            {
+                state = STATE_GREETED;
+            }
+            break;
+        }
+
+        return progress;
+    }
+
+    private int decodeRequest(
+        DirectBuffer buffer,
+        int offset,
+        int limit)
+    {
+        int progress = offset;
+
+        switch (step)
+        {
+        case STEP_VERSION:
+            decodeVersion(buffer.getByte(progress++), STEP_COMMAND);
+            break;
+        case STEP_COMMAND:
+            command = buffer.getByte(progress++) & 0xff;
+            if (command < COMMAND_CONNECT || command > COMMAND_UDP_ASSOCIATE)
+            {
+                reject(REPLY_COMMAND_NOT_SUPPORTED);
+            }
+            else
+            {
+                step = STEP_RESERVED;
+            }
+            break;
+        case STEP_RESERVED:
+            if (buffer.getByte(progress++) != 0)
+            {
+                reject(REPLY_GENERAL_FAILURE);
+            }
+            else
+            {
+                step = STEP_ADDRESS_TYPE;
+            }
+            break;
+        case STEP_ADDRESS_TYPE:
+            addressType = buffer.getByte(progress++) & 0xff;
+            switch (addressType)
+            {
+            case ADDRESS_TYPE_IPV4:
+                pending = IPV4_ADDRESS_LENGTH;
+                step = STEP_ADDRESS;
+                break;
+            case ADDRESS_TYPE_IPV6:
+                pending = IPV6_ADDRESS_LENGTH;
+                step = STEP_ADDRESS;
+                break;
+            case ADDRESS_TYPE_DOMAIN_NAME:
+                step = STEP_DOMAIN_NAME_LENGTH;
+                break;
+            default:
+                reject(REPLY_ADDRESS_TYPE_NOT_SUPPORTED);
+                break;
+            }
+            break;
+        case STEP_DOMAIN_NAME_LENGTH:
+            pending = buffer.getByte(progress++) & 0xff;
+            if (pending == 0)
+            {
+                reject(REPLY_GENERAL_FAILURE);
+            }
+            else
+            {
+                step = STEP_ADDRESS;
+            }
+            break;
+        case STEP_ADDRESS:
+            final int length = Math.min(pending, limit - progress);
+            buffer.getBytes(progress, addressBytes, addressLength, length);
+            progress += length;
+            addressLength += length;
+            pending -= length;
+            if (pending == 0)
+            {
+                pending = PORT_LENGTH;
+                step = STEP_PORT;
+            }
+            break;
+        default:
+            port = (port << 8) | (buffer.getByte(progress++) & 0xff);
+            pending--;
+            if (pending == 0)
+            {
+                state = STATE_REQUESTED;
+            }
+            break;
+        }
+
+        return progress;
+    }
+
+    private void decodeVersion(
+        byte version,
+        int nextStep)
+    {
+        if (version != SOCKS_VERSION)
+        {
+            reject(REPLY_GENERAL_FAILURE);
+        }
+        else
+        {
+            step = nextStep;
+        }
+    }
+
+    private void reject(
+        int reply)
+    {
+        this.reply = reply;
+        this.state = STATE_REJECTED;
+    }
+}
@@ -15,288 +15,1794 @@
  */
 package org.reaktivity.specification.socks.internal;
 
+import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_DOMAIN_NAME;
+import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_IPV4_ADDRESS;
+import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_IPV6_ADDRESS;
+
 import java.net.UnknownHostException;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.kaazing.k3po.lang.el.Function;
 import org.kaazing.k3po.lang.el.spi.FunctionMapperSpi;
+import org.reaktivity.specification.socks.internal.types.Array32FW;
+import org.reaktivity.specification.socks.internal.types.OctetsFW;
+import org.reaktivity.specification.socks.internal.types.SocksAddressFW;
+import org.reaktivity.specification.socks.internal.types.String8FW;
 import org.reaktivity.specification.socks.internal.types.control.SocksRouteExFW;
+import org.reaktivity.specification.socks.internal.types.control.SocksRouteTargetFW;
+import org.reaktivity.specification.socks.internal.types.control.SocksTargetSelection;
+import org.reaktivity.specification.socks.internal.types.control.SocksTargetSelectionFW;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksCommandReplyFW;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksCommandRequestFW;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksHandshakeFW;
 import org.reaktivity.specification.socks.internal.types.stream.SocksBeginExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksDataExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksSessionExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksSessionIdFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksSessionOpenFW;
 
 public final class SocksFunctions
 {
     private static final int MAX_BUFFER_SIZE = 1024 * 8;
-    private static final Pattern IPV4_ADDRESS_PATTERN =
-        Pattern.compile("(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)" +
-                        "\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)" +
-                        "\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)" +
-                        "\\.(25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)");
-    private static final Pattern IPV6_STD_ADDRESS_PATTERN =
-        Pattern.compile("([0-9a-f]{1,4})\\:([0-9a-f]{1,4})\\:" +
-                        "([0-9a-f]{1,4})\\:([0-9a-f]{1,4})\\:" +
-                        "([0-9a-f]{1,4})\\:([0-9a-f]{1,4})\\:" +
-                        "([0-9a-f]{1,4})\\:([0-9a-f]{1,4})");
-    private static final Pattern IPV6_HEX_COMPRESSED_VALIDATE_PATTERN =
-        Pattern.compile("^((?:[0-9A-Fa-f]{1,4}(?::[0-9A-Fa-f]{1,4})*)?)" +
-                        "::((?:[0-9A-Fa-f]{1,4}(?::[0-9A-Fa-f]{1,4})*)?)$");
-    private static final Pattern IPV6_HEX_COMPRESSED_MATCH_PATTERN =
-        Pattern.compile("(?:([0-9a-f]{1,4})\\:?)?(?:([0-9a-f]{1,4})\\:?)?" +
-                        "(?:([0-9a-f]{1,4})\\:?)?(?:([0-9a-f]{1,4})\\:?)?" +
-                        "(?:([0-9a-f]{1,4})\\:?)?(?:([0-9a-f]{1,4})\\:?)?" +
-                        "([0-9a-f]{1,4})?(::)" +
-                        "(?:(?:([0-9a-f]{1,4})\\:?)??)(?:(?:([0-9a-f]{1,4})\\:?)??)" +
-                        "(?:(?:([0-9a-f]{1,4})\\:?)??)(?:(?:([0-9a-f]{1,4})\\:?)??)" +
-                        "(?:(?:([0-9a-f]{1,4})\\:?)??)(?:(?:([0-9a-f]{1,4})\\:?)??)" +
-                        "(?:(?:([0-9a-f]{1,4})?))");
-    private static final Pattern DOMAIN_NAME_MATCH_PATTERN =
-        Pattern.compile("^[a-zA-Z]([a-zA-Z0-9-\\.]{0,62}[a-zA-Z0-9])?$");
-    private static final ThreadLocal<Matcher> IPV4_ADDRESS_MATCHER =
-        ThreadLocal.withInitial(() -> IPV4_ADDRESS_PATTERN.matcher(""));
-    private static final ThreadLocal<Matcher> IPV6_STD_ADDRESS_MATCHER =
-        ThreadLocal.withInitial(() -> IPV6_STD_ADDRESS_PATTERN.matcher(""));
-    private static final ThreadLocal<Matcher> IPV6_HEX_COMPRESSED_VALIDATE_MATCHER =
-        ThreadLocal.withInitial(() -> IPV6_HEX_COMPRESSED_VALIDATE_PATTERN.matcher(""));
-    private static final ThreadLocal<Matcher> IPV6_HEX_COMPRESSED_MATCHER =
-        ThreadLocal.withInitial(() -> IPV6_HEX_COMPRESSED_MATCH_PATTERN.matcher(""));
-    private static final ThreadLocal<Matcher> DOMAIN_NAME_MATCHER =
-        ThreadLocal.withInitial(() -> DOMAIN_NAME_MATCH_PATTERN.matcher(""));
-    private static final ThreadLocal<byte[]> IPV4_ADDRESS_BYTES =
-        ThreadLocal.withInitial(() -> new byte[4]);
-    private static final ThreadLocal<byte[]> IPV6_ADDRESS_BYTES =
-        ThreadLocal.withInitial(() -> new byte[16]);
+    private static final int MAX_POOLED_BUILDERS = 16;
+    private static final int MAX_DOMAIN_NAME_LENGTH = 64;
+    private static final int IPV4_ADDRESS_SIZE = 4;
+    private static final int IPV6_ADDRESS_SIZE = 16;
+    private static final int IPV6_GROUP_COUNT = 8;
+    private static final int MAX_METHODS = 255;
+    private static final int MAX_ROUTE_TARGETS = 16;
+    private static final int MAX_TARGET_WEIGHT = 0xffff;
+    private static final int MAX_RESOLVED_ADDRESSES = 16;
+    private static final long MAX_TTL = 0xffff_ffffL;
+    private static final int MAX_MULTIPLEXED_SESSIONS = 0xffff;
+    private static final long MAX_SESSION_ID = 0xffff_ffffL;
+    private static final long MAX_BUFFERED_BYTES = 0xffff_ffffL;
+    private static final long MAX_TIMEOUT = 0xffff_ffffL;
+    private static final long MAX_CONCURRENT_SESSIONS = 0xffff_ffffL;
+    private static final long MAX_BANDWIDTH = 0xffff_ffffL;
+    private static final int MAX_PRIORITY = 0xff;
+    private static final int MAX_PRIORITY_WEIGHT = 0xffff;
+    private static final int DEFAULT_PRIORITY_WEIGHT = 1;
+    private static final int PAYLOAD_CYCLE = 251;
+    private static final String WILDCARD_PREFIX = "*.";
+
+    private static final int MAX_CACHED_EXTENSIONS = 1024;
+
+    // cached extensions save encoding, not allocation: each caller receives its own copy
+    private static final SocksExtensionCache ROUTE_EX_CACHE = new SocksExtensionCache(MAX_CACHED_EXTENSIONS);
+    private static final SocksExtensionCache BEGIN_EX_CACHE = new SocksExtensionCache(MAX_CACHED_EXTENSIONS);
+    private static final SocksExtensionCache DATA_EX_CACHE = new SocksExtensionCache(MAX_CACHED_EXTENSIONS);
+
+    private static final ThreadLocal<Deque<SocksRouteExBuilder>> ROUTE_EX_BUILDERS =
+        ThreadLocal.withInitial(() -> new ArrayDeque<>(MAX_POOLED_BUILDERS));
+    private static final ThreadLocal<Deque<SocksBeginExBuilder>> BEGIN_EX_BUILDERS =
+        ThreadLocal.withInitial(() -> new ArrayDeque<>(MAX_POOLED_BUILDERS));
+    private static final ThreadLocal<Deque<SocksDataExBuilder>> DATA_EX_BUILDERS =
+        ThreadLocal.withInitial(() -> new ArrayDeque<>(MAX_POOLED_BUILDERS));
+    private static final ThreadLocal<Deque<SocksSessionExBuilder>> SESSION_EX_BUILDERS =
+        ThreadLocal.withInitial(() -> new ArrayDeque<>(MAX_POOLED_BUILDERS));
+
+    private static final ThreadLocal<MutableDirectBuffer> WRITE_BUFFER =
+        ThreadLocal.withInitial(() -> new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]));
 
     @Function
     public static SocksRouteExBuilder routeEx()
     {
-        return new SocksRouteExBuilder();
+        final SocksRouteExBuilder builder = ROUTE_EX_BUILDERS.get().poll();
+        return builder != null ? builder.reset() : new SocksRouteExBuilder();
     }
 
     @Function
     public static SocksBeginExBuilder beginEx()
     {
-        return new SocksBeginExBuilder();
+        final SocksBeginExBuilder builder = BEGIN_EX_BUILDERS.get().poll();
+        return builder != null ? builder.reset() : new SocksBeginExBuilder();
+    }
+
+    @Function
+    public static SocksDataExBuilder dataEx()
+    {
+        final SocksDataExBuilder builder = DATA_EX_BUILDERS.get().poll();
+        return builder != null ? builder.reset() : new SocksDataExBuilder();
+    }
+
+    @Function
+    public static SocksSessionExBuilder sessionEx()
+    {
+        final SocksSessionExBuilder builder = SESSION_EX_BUILDERS.get().poll();
+        return builder != null ? builder.reset() : new SocksSessionExBuilder();
+    }
+
+    @Function
+    public static SocksHandshakeBuilder handshake()
+    {
+        return new SocksHandshakeBuilder();
+    }
+
+    @Function
+    public static SocksCommandRequestBuilder request()
+    {
+        return new SocksCommandRequestBuilder();
+    }
+
+    @Function
+    public static SocksCommandReplyBuilder reply()
+    {
+        return new SocksCommandReplyBuilder();
+    }
+
+    @Function
+    public static byte[] payload(
+        int length)
+    {
+        // cycle length is prime so reordered or repeated power-of-two chunks cannot match
+        final byte[] payload = new byte[length];
+        for (int i = 0; i < length; i++)
+        {
+            payload[i] = (byte) (i % PAYLOAD_CYCLE);
+        }
+        return payload;
+    }
+
+    public static long extensionCacheHits()
+    {
+        return ROUTE_EX_CACHE.hits() + BEGIN_EX_CACHE.hits() + DATA_EX_CACHE.hits();
     }
 
+    public static long extensionCacheMisses()
+    {
+        return ROUTE_EX_CACHE.misses() + BEGIN_EX_CACHE.misses() + DATA_EX_CACHE.misses();
+    }
 
     public static final class SocksRouteExBuilder
     {
+        private final MutableDirectBuffer writeBuffer;
         private final SocksRouteExFW.Builder routeExRW;
+        private final SocksAddressEncoder addressEncoder;
+        private final SocksExtensionKey routeExKey;
+        private final String[] targets;
+        private final int[] weights;
+        private final Consumer<SocksTargetSelectionFW.Builder> selectionSetter;
+        private final Consumer<Array32FW.Builder<SocksRouteTargetFW.Builder, SocksRouteTargetFW>> targetsSetter;
+
+        private String address;
+        private int port;
+        private long udpReassemblyLimit;
+        private long udpReassemblyTimeout;
+        private int maxMultiplexedSessions;
+        private long negativeCacheTtl;
+        private long maxBufferedBytes;
+        private long handshakeTimeout;
+        private long idleTimeout;
+        private long maxConcurrentSessions;
+        private long initialBandwidth;
+        private long replyBandwidth;
+        private long bandwidthBurst;
+        private int priority;
+        private int priorityWeight = DEFAULT_PRIORITY_WEIGHT;
+        private int prefixLength = -1;
+        private int portRangeEnd = -1;
+        private SocksTargetSelection selection = SocksRouteExFW.Builder.DEFAULT_SELECTION;
+        private int targetCount;
+        private boolean pooled;
 
         private SocksRouteExBuilder()
         {
-            MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
-            this.routeExRW = new SocksRouteExFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity());
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.routeExRW = new SocksRouteExFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+            this.routeExKey = new SocksExtensionKey();
+            this.targets = new String[MAX_ROUTE_TARGETS];
+            this.weights = new int[MAX_ROUTE_TARGETS];
+            this.selectionSetter = s -> s.set(selection);
+            this.targetsSetter = this::encodeTargets;
         }
 
         public SocksRouteExBuilder address(
             String address) throws UnknownHostException
         {
-            if (IPV4_ADDRESS_MATCHER.get().reset(address).matches())
+            this.address = address;
+            return this;
+        }
+
+        public SocksRouteExBuilder ipv4Address(
+            byte[] address)
+        {
+            addressEncoder.ipv4Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksRouteExBuilder ipv6Address(
+            byte[] address)
+        {
+            addressEncoder.ipv6Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksRouteExBuilder ipv4(
+            int address)
+        {
+            addressEncoder.ipv4(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksRouteExBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public SocksRouteExBuilder portRange(
+            int port,
+            int portRangeEnd)
+        {
+            this.port = port;
+            this.portRangeEnd = portRangeEnd;
+            return this;
+        }
+
+        public SocksRouteExBuilder prefixLength(
+            int prefixLength)
+        {
+            this.prefixLength = prefixLength;
+            return this;
+        }
+
+        public SocksRouteExBuilder target(
+            String target,
+            int weight)
+        {
+            if (targetCount == MAX_ROUTE_TARGETS)
             {
-                final Matcher ipv4Matcher = IPV4_ADDRESS_MATCHER.get();
-                final byte[] ipv4AddressBytes = IPV4_ADDRESS_BYTES.get();
-                encodeIpv4AddressBytes(ipv4Matcher, ipv4AddressBytes);
-                routeExRW.address(b -> b.ipv4Address(s -> s.set(ipv4AddressBytes)));
+                throw new IllegalArgumentException(String.format("Targets exceed %d", MAX_ROUTE_TARGETS));
             }
-            else if (IPV6_STD_ADDRESS_MATCHER.get().reset(address).matches())
+
+            if (weight < 0 || weight > MAX_TARGET_WEIGHT)
             {
-                final byte[] addressBytes = IPV6_ADDRESS_BYTES.get();
-                final Matcher ipv6Matcher = IPV6_STD_ADDRESS_MATCHER.get();
-                encodeStandardIpv6AddressBytes(ipv6Matcher, addressBytes);
-                routeExRW.address(b -> b.ipv6Address(s -> s.set(addressBytes)));
+                throw new IllegalArgumentException(String.format("Target weight %d", weight));
             }
-            else if (IPV6_HEX_COMPRESSED_MATCHER.get().reset(address).matches() &&
-                IPV6_HEX_COMPRESSED_VALIDATE_MATCHER.get().reset(address).matches())
+
+            targets[targetCount] = target;
+            weights[targetCount] = weight;
+            targetCount++;
+            return this;
+        }
+
+        public SocksRouteExBuilder selection(
+            String selection)
+        {
+            this.selection = SocksTargetSelection.valueOf(selection);
+            return this;
+        }
+
+        public SocksRouteExBuilder udpReassemblyLimit(
+            long udpReassemblyLimit)
+        {
+            this.udpReassemblyLimit = udpReassemblyLimit;
+            return this;
+        }
+
+        public SocksRouteExBuilder udpReassemblyTimeout(
+            long udpReassemblyTimeout)
+        {
+            this.udpReassemblyTimeout = udpReassemblyTimeout;
+            return this;
+        }
+
+        public SocksRouteExBuilder maxMultiplexedSessions(
+            int maxMultiplexedSessions)
+        {
+            if (maxMultiplexedSessions < 0 || maxMultiplexedSessions > MAX_MULTIPLEXED_SESSIONS)
             {
-                final byte[] addressBytes = IPV6_ADDRESS_BYTES.get();
-                final Matcher ipv6Matcher = IPV6_HEX_COMPRESSED_MATCHER.get();
-                encodeCompressedIpv6AddressBytes(ipv6Matcher, addressBytes);
-                routeExRW.address(b -> b.ipv6Address(s -> s.set(addressBytes)));
+                throw new IllegalArgumentException(String.format("Multiplexed sessions %d", maxMultiplexedSessions));
             }
-            else if (DOMAIN_NAME_MATCHER.get().reset(address).matches())
+
+            this.maxMultiplexedSessions = maxMultiplexedSessions;
+            return this;
+        }
+
+        public SocksRouteExBuilder negativeCacheTtl(
+            long negativeCacheTtl)
+        {
+            if (negativeCacheTtl < 0L || negativeCacheTtl > MAX_TTL)
             {
-                routeExRW.address(b -> b.domainName(address));
+                throw new IllegalArgumentException(String.format("Negative cache TTL %d", negativeCacheTtl));
             }
-            else
+
+            this.negativeCacheTtl = negativeCacheTtl;
+            return this;
+        }
+
+        public SocksRouteExBuilder maxBufferedBytes(
+            long maxBufferedBytes)
+        {
+            if (maxBufferedBytes < 0L || maxBufferedBytes > MAX_BUFFERED_BYTES)
             {
-                throw new IllegalArgumentException(address);
+                throw new IllegalArgumentException(String.format("Buffered bytes %d", maxBufferedBytes));
             }
+
+            this.maxBufferedBytes = maxBufferedBytes;
             return this;
         }
 
-        public SocksRouteExBuilder port(
-            int port)
+        public SocksRouteExBuilder handshakeTimeout(
+            long handshakeTimeout)
         {
-            this.routeExRW.port(port);
+            this.handshakeTimeout = timeout(handshakeTimeout);
             return this;
         }
 
-        public byte[] build()
+        public SocksRouteExBuilder idleTimeout(
+            long idleTimeout)
         {
-            final SocksRouteExFW routeEx = this.routeExRW.build();
-            final byte[] array = new byte[routeEx.sizeof()];
-            routeEx.buffer().getBytes(0, array);
-            return array;
+            this.idleTimeout = timeout(idleTimeout);
+            return this;
         }
-    }
 
-    public static final class SocksBeginExBuilder
-    {
-        private final SocksBeginExFW.Builder beginExRW;
+        public SocksRouteExBuilder maxConcurrentSessions(
+            long maxConcurrentSessions)
+        {
+            if (maxConcurrentSessions < 0L || maxConcurrentSessions > MAX_CONCURRENT_SESSIONS)
+            {
+                throw new IllegalArgumentException(String.format("Concurrent sessions %d", maxConcurrentSessions));
+            }
 
-        private SocksBeginExBuilder()
+            this.maxConcurrentSessions = maxConcurrentSessions;
+            return this;
+        }
+
+        public SocksRouteExBuilder bandwidth(
+            long bytesPerSecond)
         {
-            MutableDirectBuffer writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
-            this.beginExRW = new SocksBeginExFW.Builder().wrap(writeBuffer, 0, writeBuffer.capacity());
+            this.initialBandwidth = bandwidth0(bytesPerSecond);
+            this.replyBandwidth = initialBandwidth;
+            return this;
         }
 
-        public SocksBeginExBuilder typeId(
-            int typeId)
+        public SocksRouteExBuilder initialBandwidth(
+            long bytesPerSecond)
         {
-            beginExRW.typeId(typeId);
+            this.initialBandwidth = bandwidth0(bytesPerSecond);
             return this;
         }
 
-        public SocksBeginExBuilder address(
-            String address) throws UnknownHostException
+        public SocksRouteExBuilder replyBandwidth(
+            long bytesPerSecond)
+        {
+            this.replyBandwidth = bandwidth0(bytesPerSecond);
+            return this;
+        }
+
+        public SocksRouteExBuilder bandwidthBurst(
+            long bandwidthBurst)
+        {
+            this.bandwidthBurst = bandwidth0(bandwidthBurst);
+            return this;
+        }
+
+        public SocksRouteExBuilder priority(
+            int priority,
+            int weight)
+        {
+            this.priority = checkPriority(priority);
+            this.priorityWeight = checkPriorityWeight(weight);
+            return this;
+        }
+
+        public byte[] build()
         {
-            if (IPV4_ADDRESS_MATCHER.get().reset(address).matches())
+            try
             {
-                final Matcher ipv4Matcher = IPV4_ADDRESS_MATCHER.get();
-                final byte[] ipv4AddressBytes = IPV4_ADDRESS_BYTES.get();
-                encodeIpv4AddressBytes(ipv4Matcher, ipv4AddressBytes);
-                beginExRW.address(b -> b.ipv4Address(s -> s.set(ipv4AddressBytes)));
+                final SocksExtensionKey key = cacheable() ? routeExKey.set(0, address, port) : null;
+                byte[] routeEx = key != null ? ROUTE_EX_CACHE.get(key) : null;
+
+                if (routeEx == null)
+                {
+                    routeEx = new byte[encode(writeBuffer, 0)];
+                    writeBuffer.getBytes(0, routeEx);
+
+                    if (key != null)
+                    {
+                        ROUTE_EX_CACHE.put(key, routeEx);
+                    }
+                }
+
+                return routeEx;
             }
-            else if (IPV6_STD_ADDRESS_MATCHER.get().reset(address).matches())
+            finally
             {
-                final byte[] addressBytes = IPV6_ADDRESS_BYTES.get();
-                final Matcher ipv6Matcher = IPV6_STD_ADDRESS_MATCHER.get();
-                encodeStandardIpv6AddressBytes(ipv6Matcher, addressBytes);
-                beginExRW.address(b -> b.ipv6Address(s -> s.set(addressBytes)));
+                release();
             }
-            else if (IPV6_HEX_COMPRESSED_MATCHER.get().reset(address).matches() &&
-                IPV6_HEX_COMPRESSED_VALIDATE_MATCHER.get().reset(address).matches())
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            try
             {
-                final byte[] addressBytes = IPV6_ADDRESS_BYTES.get();
-                final Matcher ipv6Matcher = IPV6_HEX_COMPRESSED_MATCHER.get();
-                encodeCompressedIpv6AddressBytes(ipv6Matcher, addressBytes);
-                beginExRW.address(b -> b.ipv6Address(s -> s.set(addressBytes)));
+                return encode(buffer, offset);
             }
-            else if (DOMAIN_NAME_MATCHER.get().reset(address).matches())
+            finally
             {
-                beginExRW.address(b -> b.domainName(address));
+                release();
             }
-            else
+        }
+
+        private int encode(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            final int addressPrefixLength = address != null ? addressEncoder.routeAddress(address) : -1;
+            final int prefixLength =
+                addressEncoder.prefixLength(this.prefixLength != -1 ? this.prefixLength : addressPrefixLength);
+            final int portRangeEnd = this.portRangeEnd != -1 ? this.portRangeEnd : port;
+            if (portRangeEnd < port)
             {
-                throw new IllegalArgumentException(address);
+                throw new IllegalArgumentException(String.format("Port range %d-%d", port, portRangeEnd));
             }
-            return this;
+
+            return routeExRW.wrap(buffer, offset, buffer.capacity())
+                            .port(port)
+                            .portRangeEnd(portRangeEnd)
+                            .prefixLength(prefixLength)
+                            .udpReassemblyLimit(udpReassemblyLimit)
+                            .udpReassemblyTimeout(udpReassemblyTimeout)
+                            .maxMultiplexedSessions(maxMultiplexedSessions)
+                            .negativeCacheTtl(negativeCacheTtl)
+                            .maxBufferedBytes(maxBufferedBytes)
+                            .handshakeTimeout(handshakeTimeout)
+                            .idleTimeout(idleTimeout)
+                            .maxConcurrentSessions(maxConcurrentSessions)
+                            .initialBandwidth(initialBandwidth)
+                            .replyBandwidth(replyBandwidth)
+                            .bandwidthBurst(bandwidthBurst)
+                            .priority(priority)
+                            .priorityWeight(priorityWeight)
+                            .address(addressEncoder)
+                            .selection(selectionSetter)
+                            .targets(targetsSetter)
+                            .build()
+                            .sizeof();
         }
 
-        public SocksBeginExBuilder port(
-            int port)
+        private long timeout(
+            long timeout)
+        {
+            if (timeout < 0L || timeout > MAX_TIMEOUT)
+            {
+                throw new IllegalArgumentException(String.format("Timeout %d", timeout));
+            }
+
+            return timeout;
+        }
+
+        private long bandwidth0(
+            long bandwidth)
+        {
+            if (bandwidth < 0L || bandwidth > MAX_BANDWIDTH)
+            {
+                throw new IllegalArgumentException(String.format("Bandwidth %d", bandwidth));
+            }
+
+            return bandwidth;
+        }
+
+        private void encodeTargets(
+            Array32FW.Builder<SocksRouteTargetFW.Builder, SocksRouteTargetFW> builder)
+        {
+            for (int index = 0; index < targetCount; index++)
+            {
+                final String target = targets[index];
+                final int weight = weights[index];
+                builder.item(t -> t.target(target).weight(weight));
+            }
+        }
+
+        private boolean cacheable()
         {
-            this.beginExRW.port(port);
+            return address != null &&
+                udpReassemblyLimit == 0L &&
+                udpReassemblyTimeout == 0L &&
+                maxMultiplexedSessions == 0 &&
+                negativeCacheTtl == 0L &&
+                maxBufferedBytes == 0L &&
+                handshakeTimeout == 0L &&
+                idleTimeout == 0L &&
+                maxConcurrentSessions == 0L &&
+                initialBandwidth == 0L &&
+                replyBandwidth == 0L &&
+                bandwidthBurst == 0L &&
+                priority == 0 &&
+                priorityWeight == DEFAULT_PRIORITY_WEIGHT &&
+                prefixLength == -1 &&
+                portRangeEnd == -1 &&
+                selection == SocksRouteExFW.Builder.DEFAULT_SELECTION &&
+                targetCount == 0;
+        }
+
+        private SocksRouteExBuilder reset()
+        {
+            addressEncoder.reset();
+            address = null;
+            port = 0;
+            udpReassemblyLimit = 0L;
+            udpReassemblyTimeout = 0L;
+            maxMultiplexedSessions = 0;
+            negativeCacheTtl = 0L;
+            maxBufferedBytes = 0L;
+            handshakeTimeout = 0L;
+            idleTimeout = 0L;
+            maxConcurrentSessions = 0L;
+            initialBandwidth = 0L;
+            replyBandwidth = 0L;
+            bandwidthBurst = 0L;
+            priority = 0;
+            priorityWeight = DEFAULT_PRIORITY_WEIGHT;
+            prefixLength = -1;
+            portRangeEnd = -1;
+            selection = SocksRouteExFW.Builder.DEFAULT_SELECTION;
+            Arrays.fill(targets, 0, targetCount, null);
+            targetCount = 0;
+            pooled = false;
             return this;
         }
 
-        public byte[] build()
+        private void release()
         {
-            final SocksBeginExFW beginEx = beginExRW.build();
-            final byte[] array = new byte[beginEx.sizeof()];
-            beginEx.buffer().getBytes(0, array);
-            return array;
+            final Deque<SocksRouteExBuilder> builders = ROUTE_EX_BUILDERS.get();
+            if (!pooled && builders.size() < MAX_POOLED_BUILDERS)
+            {
+                builders.push(this);
+                pooled = true;
+            }
         }
     }
 
-    public static class Mapper extends FunctionMapperSpi.Reflective
+    public static final class SocksBeginExBuilder
     {
-        public Mapper()
+        private final MutableDirectBuffer writeBuffer;
+        private final SocksBeginExFW.Builder beginExRW;
+        private final SocksAddressEncoder addressEncoder;
+        private final SocksExtensionKey beginExKey;
+        private final SocksAddressEncoder[] resolvedEncoders;
+        private final Consumer<Array32FW.Builder<SocksAddressFW.Builder, SocksAddressFW>> resolvedSetter;
+
+        private int typeId;
+        private String address;
+        private int port;
+        private long ttl;
+        private int priority;
+        private int priorityWeight = DEFAULT_PRIORITY_WEIGHT;
+        private int resolvedCount;
+        private boolean pooled;
+
+        private SocksBeginExBuilder()
         {
-            super(SocksFunctions.class);
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.beginExRW = new SocksBeginExFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+            this.beginExKey = new SocksExtensionKey();
+            this.resolvedEncoders = new SocksAddressEncoder[MAX_RESOLVED_ADDRESSES];
+            this.resolvedSetter = this::encodeResolved;
         }
 
-        @Override
-        public String getPrefixName()
+        public SocksBeginExBuilder typeId(
+            int typeId)
         {
-            return "socks";
+            this.typeId = typeId;
+            return this;
         }
-    }
 
-    private static void fillInBytes(
-        byte[] addressBytes,
-        int index,
-        String groupHex)
-    {
-        short groupBytes = parseShort(groupHex, 16);
-        addressBytes[index++] = (byte) ((groupBytes >> 8) & 0xff);
-        addressBytes[index] = (byte) (groupBytes & 0xff);
-    }
+        public SocksBeginExBuilder address(
+            String address) throws UnknownHostException
+        {
+            this.address = address;
+            return this;
+        }
 
-    private static void encodeCompressedIpv6AddressBytes(
-        Matcher ipv6Matcher,
-        byte[] addressBytes)
-    {
-        Arrays.fill(addressBytes, (byte) 0);
-        for (int group = 1; group < 8; group++)
+        public SocksBeginExBuilder ipv4Address(
+            byte[] address)
+        {
+            addressEncoder.ipv4Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksBeginExBuilder ipv6Address(
+            byte[] address)
+        {
+            addressEncoder.ipv6Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksBeginExBuilder ipv4(
+            int address)
+        {
+            addressEncoder.ipv4(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksBeginExBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public SocksBeginExBuilder ttl(
+            long ttl)
         {
-            String groupHex = ipv6Matcher.group(group);
-            if (groupHex == null)
+            if (ttl < 0L || ttl > MAX_TTL)
             {
-                break;
+                throw new IllegalArgumentException(String.format("TTL %d", ttl));
             }
-            fillInBytes(addressBytes, 2 * (group - 1), groupHex);
+
+            this.ttl = ttl;
+            return this;
+        }
+
+        public SocksBeginExBuilder priority(
+            int priority,
+            int weight)
+        {
+            this.priority = checkPriority(priority);
+            this.priorityWeight = checkPriorityWeight(weight);
+            return this;
         }
-        for (int group = 15; group > 8; group--)
+
+        public SocksBeginExBuilder resolved(
+            String address)
         {
-            String groupHex = ipv6Matcher.group(group);
-            if (groupHex == null)
+            if (resolvedCount == MAX_RESOLVED_ADDRESSES)
             {
-                break;
+                throw new IllegalArgumentException(String.format("Resolved addresses exceed %d", MAX_RESOLVED_ADDRESSES));
             }
-            fillInBytes(addressBytes, 2 * (group - 8), groupHex);
-        }
-    }
 
-    static byte parseByte(
-        String s,
-        int radix)
-    {
-        assert s.length() > 0 && s.length() <= 3;
-        return (byte) Integer.parseInt(s, radix);
-    }
+            SocksAddressEncoder resolvedEncoder = resolvedEncoders[resolvedCount];
+            if (resolvedEncoder == null)
+            {
+                resolvedEncoder = new SocksAddressEncoder();
+                resolvedEncoders[resolvedCount] = resolvedEncoder;
+            }
 
-    static short parseShort(
-        String s,
-        int radix)
-    {
-        assert s.length() > 0 && s.length() <= 4;
-        return (short) Integer.parseInt(s, radix);
-    }
+            if (resolvedEncoder.address(address).kind == KIND_DOMAIN_NAME)
+            {
+                throw new IllegalArgumentException(address);
+            }
 
-    private static void encodeStandardIpv6AddressBytes(
-        Matcher ipv6Matcher,
-        byte[] addressBytes)
-    {
-        for (int group = 1; group < ipv6Matcher.groupCount() + 1; group++)
+            resolvedCount++;
+            return this;
+        }
+
+        public byte[] build()
         {
-            String groupHex = ipv6Matcher.group(group);
-            fillInBytes(addressBytes, 2 * (group - 1), groupHex);
+            try
+            {
+                final SocksExtensionKey key = cacheable() ? beginExKey.set(typeId, address, port) : null;
+                byte[] beginEx = key != null ? BEGIN_EX_CACHE.get(key) : null;
+
+                if (beginEx == null)
+                {
+                    beginEx = new byte[encode(writeBuffer, 0)];
+                    writeBuffer.getBytes(0, beginEx);
+
+                    if (key != null)
+                    {
+                        BEGIN_EX_CACHE.put(key, beginEx);
+                    }
+                }
+
+                return beginEx;
+            }
+            finally
+            {
+                release();
+            }
         }
-    }
 
-    private static void encodeIpv4AddressBytes(
-        Matcher ipv4Matcher,
-        byte[] ipv4AddressBytes)
-    {
-        for (int group = 1; group < ipv4AddressBytes.length + 1; group++)
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
         {
-            ipv4AddressBytes[group - 1] = parseByte(ipv4Matcher.group(group), 10);
+            try
+            {
+                return encode(buffer, offset);
+            }
+            finally
+            {
+                release();
+            }
         }
+
+        private int encode(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            if (address != null)
+            {
+                addressEncoder.address(address);
+            }
+
+            return beginExRW.wrap(buffer, offset, buffer.capacity())
+                            .typeId(typeId)
+                            .port(port)
+                            .ttl(ttl)
+                            .priority(priority)
+                            .priorityWeight(priorityWeight)
+                            .address(addressEncoder)
+                            .resolved(resolvedSetter)
+                            .build()
+                            .sizeof();
+        }
+
+        private void encodeResolved(
+            Array32FW.Builder<SocksAddressFW.Builder, SocksAddressFW> builder)
+        {
+            for (int index = 0; index < resolvedCount; index++)
+            {
+                builder.item(resolvedEncoders[index]);
+            }
+        }
+
+        private boolean cacheable()
+        {
+            return address != null &&
+                ttl == 0L &&
+                priority == 0 &&
+                priorityWeight == DEFAULT_PRIORITY_WEIGHT &&
+                resolvedCount == 0;
+        }
+
+        private SocksBeginExBuilder reset()
+        {
+            addressEncoder.reset();
+            typeId = 0;
+            address = null;
+            port = 0;
+            ttl = 0L;
+            priority = 0;
+            priorityWeight = DEFAULT_PRIORITY_WEIGHT;
+            resolvedCount = 0;
+            pooled = false;
+            return this;
+        }
+
+        private void release()
+        {
+            final Deque<SocksBeginExBuilder> builders = BEGIN_EX_BUILDERS.get();
+            if (!pooled && builders.size() < MAX_POOLED_BUILDERS)
+            {
+                builders.push(this);
+                pooled = true;
+            }
+        }
+    }
+
+    public static final class SocksDataExBuilder
+    {
+        private final MutableDirectBuffer writeBuffer;
+        private final SocksDataExFW.Builder dataExRW;
+        private final SocksAddressEncoder addressEncoder;
+        private final SocksExtensionKey dataExKey;
+
+        private int typeId;
+        private int fragment;
+        private String address;
+        private int port;
+        private boolean pooled;
+
+        private SocksDataExBuilder()
+        {
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.dataExRW = new SocksDataExFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+            this.dataExKey = new SocksExtensionKey();
+        }
+
+        public SocksDataExBuilder typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public SocksDataExBuilder fragment(
+            int fragment)
+        {
+            this.fragment = fragment;
+            return this;
+        }
+
+        public SocksDataExBuilder address(
+            String address) throws UnknownHostException
+        {
+            this.address = address;
+            return this;
+        }
+
+        public SocksDataExBuilder ipv4Address(
+            byte[] address)
+        {
+            addressEncoder.ipv4Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksDataExBuilder ipv6Address(
+            byte[] address)
+        {
+            addressEncoder.ipv6Address(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksDataExBuilder ipv4(
+            int address)
+        {
+            addressEncoder.ipv4(address);
+            this.address = null;
+            return this;
+        }
+
+        public SocksDataExBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public byte[] build()
+        {
+            try
+            {
+                final SocksExtensionKey key = cacheable() ? dataExKey.set(typeId, address, port) : null;
+                byte[] dataEx = key != null ? DATA_EX_CACHE.get(key) : null;
+
+                if (dataEx == null)
+                {
+                    dataEx = new byte[encode(writeBuffer, 0)];
+                    writeBuffer.getBytes(0, dataEx);
+
+                    if (key != null)
+                    {
+                        DATA_EX_CACHE.put(key, dataEx);
+                    }
+                }
+
+                return dataEx;
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            try
+            {
+                return encode(buffer, offset);
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        private int encode(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            if (address != null)
+            {
+                addressEncoder.address(address);
+            }
+
+            return dataExRW.wrap(buffer, offset, buffer.capacity())
+                           .typeId(typeId)
+                           .fragment(fragment)
+                           .port(port)
+                           .address(addressEncoder)
+                           .build()
+                           .sizeof();
+        }
+
+        private boolean cacheable()
+        {
+            return address != null &&
+                fragment == 0;
+        }
+
+        private SocksDataExBuilder reset()
+        {
+            addressEncoder.reset();
+            typeId = 0;
+            fragment = 0;
+            address = null;
+            port = 0;
+            pooled = false;
+            return this;
+        }
+
+        private void release()
+        {
+            final Deque<SocksDataExBuilder> builders = DATA_EX_BUILDERS.get();
+            if (!pooled && builders.size() < MAX_POOLED_BUILDERS)
+            {
+                builders.push(this);
+                pooled = true;
+            }
+        }
+    }
+
+    public static final class SocksSessionExBuilder
+    {
+        private final MutableDirectBuffer writeBuffer;
+        private final SocksSessionExFW.Builder sessionExRW;
+        private final SocksAddressEncoder addressEncoder;
+        private final Consumer<SocksSessionOpenFW.Builder> openSetter;
+        private final Consumer<SocksSessionIdFW.Builder> sessionIdSetter;
+
+        private int typeId;
+        private int kind;
+        private long sessionId;
+        private String address;
+        private int port;
+        private boolean pooled;
+
+        private SocksSessionExBuilder()
+        {
+            this.writeBuffer = new UnsafeBuffer(new byte[MAX_BUFFER_SIZE]);
+            this.sessionExRW = new SocksSessionExFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+            this.openSetter = o -> o.sessionId(sessionId).port(port).address(addressEncoder);
+            this.sessionIdSetter = s -> s.sessionId(sessionId);
+        }
+
+        public SocksSessionExBuilder typeId(
+            int typeId)
+        {
+            this.typeId = typeId;
+            return this;
+        }
+
+        public SocksSessionExBuilder open(
+            long sessionId)
+        {
+            return session(SocksSessionExFW.KIND_OPEN, sessionId);
+        }
+
+        public SocksSessionExBuilder data(
+            long sessionId)
+        {
+            return session(SocksSessionExFW.KIND_DATA, sessionId);
+        }
+
+        public SocksSessionExBuilder end(
+            long sessionId)
+        {
+            return session(SocksSessionExFW.KIND_END, sessionId);
+        }
+
+        public SocksSessionExBuilder reset(
+            long sessionId)
+        {
+            return session(SocksSessionExFW.KIND_RESET, sessionId);
+        }
+
+        public SocksSessionExBuilder address(
+            String address) throws UnknownHostException
+        {
+            this.address = address;
+            return this;
+        }
+
+        public SocksSessionExBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public byte[] build()
+        {
+            try
+            {
+                final byte[] sessionEx = new byte[encode(writeBuffer, 0)];
+                writeBuffer.getBytes(0, sessionEx);
+                return sessionEx;
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            try
+            {
+                return encode(buffer, offset);
+            }
+            finally
+            {
+                release();
+            }
+        }
+
+        private SocksSessionExBuilder session(
+            int kind,
+            long sessionId)
+        {
+            if (sessionId < 0L || sessionId > MAX_SESSION_ID)
+            {
+                throw new IllegalArgumentException(String.format("Session id %d", sessionId));
+            }
+
+            this.kind = kind;
+            this.sessionId = sessionId;
+            return this;
+        }
+
+        private int encode(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            sessionExRW.wrap(buffer, offset, buffer.capacity())
+                       .typeId(typeId);
+
+            switch (kind)
+            {
+            case SocksSessionExFW.KIND_OPEN:
+                if (address == null)
+                {
+                    throw new IllegalStateException("Session address not set");
+                }
+                addressEncoder.address(address);
+                sessionExRW.open(openSetter);
+                break;
+            case SocksSessionExFW.KIND_DATA:
+                sessionExRW.data(sessionIdSetter);
+                break;
+            case SocksSessionExFW.KIND_END:
+                sessionExRW.end(sessionIdSetter);
+                break;
+            case SocksSessionExFW.KIND_RESET:
+                sessionExRW.reset(sessionIdSetter);
+                break;
+            default:
+                throw new IllegalStateException("Session kind not set");
+            }
+
+            return sessionExRW.build().sizeof();
+        }
+
+        private SocksSessionExBuilder reset()
+        {
+            addressEncoder.reset();
+            typeId = 0;
+            kind = 0;
+            sessionId = 0L;
+            address = null;
+            port = 0;
+            pooled = false;
+            return this;
+        }
+
+        private void release()
+        {
+            final Deque<SocksSessionExBuilder> builders = SESSION_EX_BUILDERS.get();
+            if (!pooled && builders.size() < MAX_POOLED_BUILDERS)
+            {
+                builders.push(this);
+                pooled = true;
+            }
+        }
+    }
+
+    public static final class SocksHandshakeBuilder
+    {
+        private final SocksHandshakeFW.Builder handshakeRW;
+        private final MutableDirectBuffer methods;
+
+        private int nmethods;
+
+        private SocksHandshakeBuilder()
+        {
+            this.handshakeRW = new SocksHandshakeFW.Builder();
+            this.methods = new UnsafeBuffer(new byte[MAX_METHODS]);
+        }
+
+        public SocksHandshakeBuilder method(
+            int method)
+        {
+            methods.putByte(nmethods++, (byte) method);
+            return this;
+        }
+
+        public byte[] build()
+        {
+            final MutableDirectBuffer writeBuffer = WRITE_BUFFER.get();
+            final byte[] array = new byte[buildInto(writeBuffer, 0)];
+            writeBuffer.getBytes(0, array);
+            return array;
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            return handshakeRW.wrap(buffer, offset, buffer.capacity())
+                              .methods(methods, 0, nmethods)
+                              .build()
+                              .sizeof();
+        }
+    }
+
+    public static final class SocksCommandRequestBuilder
+    {
+        private final SocksCommandRequestFW.Builder requestRW;
+        private final SocksAddressEncoder addressEncoder;
+
+        private int command;
+        private int port;
+
+        private SocksCommandRequestBuilder()
+        {
+            this.requestRW = new SocksCommandRequestFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+        }
+
+        public SocksCommandRequestBuilder command(
+            int command)
+        {
+            this.command = command;
+            return this;
+        }
+
+        public SocksCommandRequestBuilder address(
+            String address) throws UnknownHostException
+        {
+            addressEncoder.address(address);
+            return this;
+        }
+
+        public SocksCommandRequestBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public byte[] build()
+        {
+            final MutableDirectBuffer writeBuffer = WRITE_BUFFER.get();
+            final byte[] array = new byte[buildInto(writeBuffer, 0)];
+            writeBuffer.getBytes(0, array);
+            return array;
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            return requestRW.wrap(buffer, offset, buffer.capacity())
+                            .command(command)
+                            .address(addressEncoder)
+                            .port(port)
+                            .build()
+                            .sizeof();
+        }
+    }
+
+    public static final class SocksCommandReplyBuilder
+    {
+        private final SocksCommandReplyFW.Builder replyRW;
+        private final SocksAddressEncoder addressEncoder;
+
+        private int reply;
+        private int port;
+
+        private SocksCommandReplyBuilder()
+        {
+            this.replyRW = new SocksCommandReplyFW.Builder();
+            this.addressEncoder = new SocksAddressEncoder();
+        }
+
+        public SocksCommandReplyBuilder reply(
+            int reply)
+        {
+            this.reply = reply;
+            return this;
+        }
+
+        public SocksCommandReplyBuilder address(
+            String address) throws UnknownHostException
+        {
+            addressEncoder.address(address);
+            return this;
+        }
+
+        public SocksCommandReplyBuilder port(
+            int port)
+        {
+            this.port = port;
+            return this;
+        }
+
+        public byte[] build()
+        {
+            final MutableDirectBuffer writeBuffer = WRITE_BUFFER.get();
+            final byte[] array = new byte[buildInto(writeBuffer, 0)];
+            writeBuffer.getBytes(0, array);
+            return array;
+        }
+
+        public int buildInto(
+            MutableDirectBuffer buffer,
+            int offset)
+        {
+            return replyRW.wrap(buffer, offset, buffer.capacity())
+                          .reply(reply)
+                          .address(addressEncoder)
+                          .port(port)
+                          .build()
+                          .sizeof();
+        }
+    }
+
+    public static class Mapper extends FunctionMapperSpi.Reflective
+    {
+        public Mapper()
+        {
+            super(SocksFunctions.class);
+        }
+
+        @Override
+        public String getPrefixName()
+        {
+            return "socks";
+        }
+    }
+
+    private static final class SocksExtensionKey
+    {
+        private int typeId;
+        private String address;
+        private int port;
+
+        private SocksExtensionKey()
+        {
+        }
+
+        private SocksExtensionKey(
+            SocksExtensionKey key)
+        {
+            set(key.typeId, key.address, key.port);
+        }
+
+        private SocksExtensionKey set(
+            int typeId,
+            String address,
+            int port)
+        {
+            this.typeId = typeId;
+            this.address = address;
+            this.port = port;
+            return this;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return (typeId * 31 + address.hashCode()) * 31 + port;
+        }
+
+        @Override
+        public boolean equals(
+            Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+
+            if (!(obj instanceof SocksExtensionKey))
+            {
+                return false;
+            }
+
+            final SocksExtensionKey that = (SocksExtensionKey) obj;
+            return this.typeId == that.typeId &&
+                this.port == that.port &&
+                this.address.equals(that.address);
+        }
+    }
+
+    private static final class SocksExtensionCache
+    {
+        private final Map<SocksExtensionKey, byte[]> extensions;
+
+        private long hits;
+        private long misses;
+
+        private SocksExtensionCache(
+            int capacity)
+        {
+            this.extensions = new LinkedHashMap<SocksExtensionKey, byte[]>(capacity, 0.75f, true)
+            {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                    Map.Entry<SocksExtensionKey, byte[]> eldest)
+                {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        private synchronized byte[] get(
+            SocksExtensionKey key)
+        {
+            final byte[] extension = extensions.get(key);
+            if (extension != null)
+            {
+                hits++;
+            }
+            else
+            {
+                misses++;
+            }
+            return extension != null ? extension.clone() : null;
+        }
+
+        private synchronized void put(
+            SocksExtensionKey key,
+            byte[] extension)
+        {
+            extensions.put(new SocksExtensionKey(key), extension.clone());
+        }
+
+        private synchronized long hits()
+        {
+            return hits;
+        }
+
+        private synchronized long misses()
+        {
+            return misses;
+        }
+    }
+
+    private static final class SocksAddressEncoder implements Consumer<SocksAddressFW.Builder>
+    {
+        private final byte[] ipv4Address = new byte[IPV4_ADDRESS_SIZE];
+        private final byte[] ipv6Address = new byte[IPV6_ADDRESS_SIZE];
+        private final MutableDirectBuffer domainNameBuffer = new UnsafeBuffer(new byte[1 + MAX_DOMAIN_NAME_LENGTH]);
+        private final String8FW domainNameRO = new String8FW();
+        private final Consumer<OctetsFW.Builder> ipv4AddressSetter = o -> o.set(ipv4Address);
+        private final Consumer<OctetsFW.Builder> ipv6AddressSetter = o -> o.set(ipv6Address);
+
+        private int kind = -1;
+
+        private int routeAddress(
+            String address)
+        {
+            int prefixLength = -1;
+            final int slash = address.indexOf('/');
+            if (slash != -1)
+            {
+                final int length = address.length();
+                final int limit = scanDigits(address, slash + 1, length, 3, 10);
+                if (limit == slash + 1 || limit != length)
+                {
+                    throw new IllegalArgumentException(address);
+                }
+
+                address(address, 0, slash);
+                if (kind == KIND_DOMAIN_NAME)
+                {
+                    throw new IllegalArgumentException(address);
+                }
+
+                prefixLength = parseByte(address, slash + 1, limit, 10);
+            }
+            else if (address.startsWith(WILDCARD_PREFIX))
+            {
+                final int offset = WILDCARD_PREFIX.length();
+                kind = encodeDomainName(address, offset, address.length(), domainNameBuffer) ? KIND_DOMAIN_NAME : -1;
+                if (kind == -1)
+                {
+                    throw new IllegalArgumentException(address);
+                }
+            }
+            else
+            {
+                address(address);
+            }
+
+            return prefixLength;
+        }
+
+        private int prefixLength(
+            int prefixLength)
+        {
+            final byte[] addressBytes = kind == KIND_IPV4_ADDRESS ? ipv4Address : kind == KIND_IPV6_ADDRESS ? ipv6Address : null;
+            final int maxPrefixLength = addressBytes != null ? addressBytes.length << 3 : 0;
+
+            if (prefixLength == -1)
+            {
+                prefixLength = maxPrefixLength;
+            }
+            else if (prefixLength < 0 || prefixLength > maxPrefixLength || hasHostBits(addressBytes, prefixLength))
+            {
+                throw new IllegalArgumentException(String.format("Prefix length %d", prefixLength));
+            }
+
+            return prefixLength;
+        }
+
+        private SocksAddressEncoder address(
+            String address)
+        {
+            return address(address, 0, address.length());
+        }
+
+        private SocksAddressEncoder address(
+            String address,
+            int offset,
+            int limit)
+        {
+            final int colon = address.indexOf(':', offset);
+            if (colon != -1 && colon < limit)
+            {
+                kind = encodeIpv6Address(address, offset, limit, ipv6Address) ? KIND_IPV6_ADDRESS : -1;
+            }
+            else if (offset < limit && digit(address.charAt(offset), 10) != -1)
+            {
+                kind = encodeIpv4Address(address, offset, limit, ipv4Address) ? KIND_IPV4_ADDRESS : -1;
+            }
+            else
+            {
+                kind = encodeDomainName(address, offset, limit, domainNameBuffer) ? KIND_DOMAIN_NAME : -1;
+            }
+
+            if (kind == -1)
+            {
+                throw new IllegalArgumentException(address);
+            }
+
+            return this;
+        }
+
+        private void reset()
+        {
+            kind = -1;
+        }
+
+        private SocksAddressEncoder ipv4Address(
+            byte[] address)
+        {
+            checkAddressLength(address, IPV4_ADDRESS_SIZE);
+            System.arraycopy(address, 0, ipv4Address, 0, IPV4_ADDRESS_SIZE);
+            kind = KIND_IPV4_ADDRESS;
+            return this;
+        }
+
+        private SocksAddressEncoder ipv6Address(
+            byte[] address)
+        {
+            checkAddressLength(address, IPV6_ADDRESS_SIZE);
+            System.arraycopy(address, 0, ipv6Address, 0, IPV6_ADDRESS_SIZE);
+            kind = KIND_IPV6_ADDRESS;
+            return this;
+        }
+
+        private SocksAddressEncoder ipv4(
+            int address)
+        {
+            ipv4Address[0] = (byte) (address >>> 24);
+            ipv4Address[1] = (byte) (address >>> 16);
+            ipv4Address[2] = (byte) (address >>> 8);
+            ipv4Address[3] = (byte) address;
+            kind = KIND_IPV4_ADDRESS;
+            return this;
+        }
+
+        @Override
+        public void accept(
+            SocksAddressFW.Builder builder)
+        {
+            switch (kind)
+            {
+            case KIND_IPV4_ADDRESS:
+                builder.ipv4Address(ipv4AddressSetter);
+                break;
+            case KIND_IPV6_ADDRESS:
+                builder.ipv6Address(ipv6AddressSetter);
+                break;
+            case KIND_DOMAIN_NAME:
+                final int length = domainNameBuffer.getByte(0) + 1;
+                builder.domainName(domainNameRO.wrap(domainNameBuffer, 0, length));
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    private static void checkAddressLength(
+        byte[] address,
+        int length)
+    {
+        if (address.length != length)
+        {
+            throw new IllegalArgumentException(String.format("Address length %d, expected %d", address.length, length));
+        }
+    }
+
+    private static int checkPriority(
+        int priority)
+    {
+        if (priority < 0 || priority > MAX_PRIORITY)
+        {
+            throw new IllegalArgumentException(String.format("Priority %d", priority));
+        }
+
+        return priority;
+    }
+
+    private static int checkPriorityWeight(
+        int weight)
+    {
+        if (weight < 1 || weight > MAX_PRIORITY_WEIGHT)
+        {
+            throw new IllegalArgumentException(String.format("Priority weight %d", weight));
+        }
+
+        return weight;
+    }
+
+    private static boolean encodeIpv4Address(
+        CharSequence address,
+        int offset,
+        int length,
+        byte[] addressBytes)
+    {
+        int index = offset;
+        boolean valid = true;
+
+        for (int octet = 0; valid && octet < IPV4_ADDRESS_SIZE; octet++)
+        {
+            if (octet != 0)
+            {
+                valid = index < length && address.charAt(index) == '.';
+                index++;
+            }
+
+            final int limit = scanDigits(address, index, length, 3, 10);
+            valid &= limit != index;
+
+            if (valid)
+            {
+                final int value = parseByte(address, index, limit, 10);
+                valid = value <= 0xff;
+                addressBytes[octet] = (byte) value;
+                index = limit;
+            }
+        }
+
+        return valid && index == length;
+    }
+
+    private static boolean encodeIpv6Address(
+        CharSequence address,
+        int offset,
+        int length,
+        byte[] addressBytes)
+    {
+        int index = offset;
+        int groups = 0;
+        int compressed = -1;
+        boolean valid = true;
+
+        if (length - offset >= 2 && address.charAt(offset) == ':' && address.charAt(offset + 1) == ':')
+        {
+            compressed = 0;
+            index += 2;
+        }
+
+        while (valid && index < length)
+        {
+            final int limit = scanDigits(address, index, length, 4, 16);
+            valid = limit != index && groups < IPV6_GROUP_COUNT;
+
+            if (valid)
+            {
+                final int value = parseShort(address, index, limit, 16);
+                addressBytes[groups << 1] = (byte) (value >>> 8);
+                addressBytes[(groups << 1) + 1] = (byte) value;
+                groups++;
+                index = limit;
+
+                if (index < length)
+                {
+                    valid = address.charAt(index++) == ':' && index < length;
+
+                    if (valid && address.charAt(index) == ':')
+                    {
+                        valid = compressed == -1;
+                        compressed = groups;
+                        index++;
+                    }
+                }
+            }
+        }
+
+        if (valid)
+        {
+            if (compressed == -1)
+            {
+                valid = groups == IPV6_GROUP_COUNT;
+            }
+            else if (groups < IPV6_GROUP_COUNT)
+            {
+                final int trailing = (groups - compressed) << 1;
+                final int trailingOffset = IPV6_ADDRESS_SIZE - trailing;
+                System.arraycopy(addressBytes, compressed << 1, addressBytes, trailingOffset, trailing);
+                Arrays.fill(addressBytes, compressed << 1, trailingOffset, (byte) 0);
+            }
+            else
+            {
+                valid = false;
+            }
+        }
+
+        return valid;
+    }
+
+    private static boolean hasHostBits(
+        byte[] addressBytes,
+        int prefixLength)
+    {
+        boolean hostBits = false;
+        if (addressBytes != null)
+        {
+            final int index = prefixLength >> 3;
+            if (index < addressBytes.length)
+            {
+                hostBits = (addressBytes[index] & (0xff >>> (prefixLength & 0x07))) != 0;
+                for (int i = index + 1; !hostBits && i < addressBytes.length; i++)
+                {
+                    hostBits = addressBytes[i] != 0;
+                }
+            }
+        }
+        return hostBits;
+    }
+
+    private static boolean encodeDomainName(
+        CharSequence address,
+        int offset,
+        int length,
+        MutableDirectBuffer domainNameBuffer)
+    {
+        boolean valid = length > offset && length <= MAX_DOMAIN_NAME_LENGTH &&
+            isAlpha(address.charAt(offset)) && isAlphaNumeric(address.charAt(length - 1));
+
+        for (int index = offset + 1; valid && index < length - 1; index++)
+        {
+            final char ch = address.charAt(index);
+            valid = isAlphaNumeric(ch) || ch == '-' || ch == '.';
+        }
+
+        if (valid)
+        {
+            domainNameBuffer.putByte(0, (byte) length);
+            for (int index = 0; index < length; index++)
+            {
+                domainNameBuffer.putByte(1 + index, (byte) address.charAt(index));
+            }
+        }
+
+        return valid;
+    }
+
+    private static int scanDigits(
+        CharSequence s,
+        int offset,
+        int limit,
+        int maxDigits,
+        int radix)
+    {
+        final int maxLimit = Math.min(limit, offset + maxDigits);
+        int index = offset;
+        while (index < maxLimit && digit(s.charAt(index), radix) != -1)
+        {
+            index++;
+        }
+        return index;
+    }
+
+    static int parseByte(
+        CharSequence s,
+        int offset,
+        int limit,
+        int radix)
+    {
+        assert limit > offset && limit - offset <= 3;
+        return parseDigits(s, offset, limit, radix);
+    }
+
+    static int parseShort(
+        CharSequence s,
+        int offset,
+        int limit,
+        int radix)
+    {
+        assert limit > offset && limit - offset <= 4;
+        return parseDigits(s, offset, limit, radix);
+    }
+
+    private static int parseDigits(
+        CharSequence s,
+        int offset,
+        int limit,
+        int radix)
+    {
+        int value = 0;
+        for (int index = offset; index < limit; index++)
+        {
+            value = value * radix + digit(s.charAt(index), radix);
+        }
+        return value;
+    }
+
+    private static int digit(
+        char ch,
+        int radix)
+    {
+        int digit = -1;
+        if (ch >= '0' && ch <= '9')
+        {
+            digit = ch - '0';
+        }
+        else if (ch >= 'a' && ch <= 'f')
+        {
+            digit = ch - 'a' + 10;
+        }
+        return digit < radix ? digit : -1;
+    }
+
+    private static boolean isAlpha(
+        char ch)
+    {
+        return ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z';
+    }
+
+    private static boolean isAlphaNumeric(
+        char ch)
+    {
+        return isAlpha(ch) || ch >= '0' && ch <= '9';
     }
 
     private SocksFunctions()
@@ -16,4 +16,6 @@
 open module org.reaktivity.specification.nukleus.socks
 {
     requires transitive org.reaktivity.specification.nukleus;
+
+    exports org.reaktivity.specification.socks;
 }
@@ -65,6 +65,96 @@ public class ControlIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "route/server/routed.udp.reassembly/nukleus",
+        "route/server/routed.udp.reassembly/controller"
+    })
+    public void shouldRouteServerWithUdpReassembly() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.cidr/nukleus",
+        "route/server/routed.cidr/controller"
+    })
+    public void shouldRouteServerWithAddressPrefix() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.max.sessions/nukleus",
+        "route/server/routed.max.sessions/controller"
+    })
+    public void shouldRouteServerWithMaxSessions() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.timeouts/nukleus",
+        "route/server/routed.timeouts/controller"
+    })
+    public void shouldRouteServerWithTimeouts() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.negative.cache/nukleus",
+        "route/server/routed.negative.cache/controller"
+    })
+    public void shouldRouteServerWithNegativeCache() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.wildcard/nukleus",
+        "route/server/routed.wildcard/controller"
+    })
+    public void shouldRouteServerWithWildcardDomainName() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.weighted.targets/nukleus",
+        "route/server/routed.weighted.targets/controller"
+    })
+    public void shouldRouteServerWithWeightedTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.source.hash/nukleus",
+        "route/server/routed.source.hash/controller"
+    })
+    public void shouldRouteServerWithSourceHashTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server/routed.destination.hash/nukleus",
+        "route/server/routed.destination.hash/controller"
+    })
+    public void shouldRouteServerWithDestinationHashTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "route/client/routed.domain/nukleus",
@@ -95,6 +185,126 @@ public class ControlIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "route/client/routed.cidr/nukleus",
+        "route/client/routed.cidr/controller"
+    })
+    public void shouldRouteClientWithAddressPrefix() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.bandwidth/nukleus",
+        "route/client/routed.bandwidth/controller"
+    })
+    public void shouldRouteClientWithBandwidth() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.priority/nukleus",
+        "route/client/routed.priority/controller"
+    })
+    public void shouldRouteClientWithPriority() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.max.sessions/nukleus",
+        "route/client/routed.max.sessions/controller"
+    })
+    public void shouldRouteClientWithMaxSessions() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.timeouts/nukleus",
+        "route/client/routed.timeouts/controller"
+    })
+    public void shouldRouteClientWithTimeouts() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.buffer.limit/nukleus",
+        "route/client/routed.buffer.limit/controller"
+    })
+    public void shouldRouteClientWithBufferLimit() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.negative.cache/nukleus",
+        "route/client/routed.negative.cache/controller"
+    })
+    public void shouldRouteClientWithNegativeCache() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.multiplexed/nukleus",
+        "route/client/routed.multiplexed/controller"
+    })
+    public void shouldRouteClientMultiplexed() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.wildcard/nukleus",
+        "route/client/routed.wildcard/controller"
+    })
+    public void shouldRouteClientWithWildcardDomainName() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.weighted.targets/nukleus",
+        "route/client/routed.weighted.targets/controller"
+    })
+    public void shouldRouteClientWithWeightedTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.source.hash/nukleus",
+        "route/client/routed.source.hash/controller"
+    })
+    public void shouldRouteClientWithSourceHashTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client/routed.destination.hash/nukleus",
+        "route/client/routed.destination.hash/controller"
+    })
+    public void shouldRouteClientWithDestinationHashTargets() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "route/server.reverse/routed.domain/nukleus",
@@ -125,6 +335,26 @@ public class ControlIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "route/server.reverse/routed.cidr/nukleus",
+        "route/server.reverse/routed.cidr/controller"
+    })
+    public void shouldRouteReverseServerWithAddressPrefix() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/server.reverse/routed.wildcard/nukleus",
+        "route/server.reverse/routed.wildcard/controller"
+    })
+    public void shouldRouteReverseServerWithWildcardDomainName() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "route/client.reverse/routed.domain/nukleus",
@@ -155,6 +385,66 @@ public class ControlIT
         k3po.finish();
     }
 
+    @Test
+    @Specification({
+        "route/client.reverse/routed.cidr/nukleus",
+        "route/client.reverse/routed.cidr/controller"
+    })
+    public void shouldRouteReverseClientWithAddressPrefix() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client.reverse/routed.bandwidth/nukleus",
+        "route/client.reverse/routed.bandwidth/controller"
+    })
+    public void shouldRouteReverseClientWithBandwidth() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client.reverse/routed.priority/nukleus",
+        "route/client.reverse/routed.priority/controller"
+    })
+    public void shouldRouteReverseClientWithPriority() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client.reverse/routed.buffer.limit/nukleus",
+        "route/client.reverse/routed.buffer.limit/controller"
+    })
+    public void shouldRouteReverseClientWithBufferLimit() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client.reverse/routed.multiplexed/nukleus",
+        "route/client.reverse/routed.multiplexed/controller"
+    })
+    public void shouldRouteReverseClientMultiplexed() throws Exception
+    {
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "route/client.reverse/routed.wildcard/nukleus",
+        "route/client.reverse/routed.wildcard/controller"
+    })
+    public void shouldRouteReverseClientWithWildcardDomainName() throws Exception
+    {
+        k3po.finish();
+    }
+
     @Test
     @Specification({
         "unroute/server/nukleus",
@@ -168,4 +168,289 @@ public class ForwardIT
         k3po.notifyBarrier("ROUTED_CLIENT");
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.pipelined.then.client.write.data/client",
+        "${scripts}/connected.pipelined.then.client.write.data/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectPipelinedThenClientWritesData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.connection.refused/client",
+        "${scripts}/rejected.connection.refused/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldRejectWithConnectionRefused() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.exceeding.window/client",
+        "${scripts}/connected.then.client.write.data.exceeding.window/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectThenClientWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.server.write.data.exceeding.window/client",
+        "${scripts}/connected.then.server.write.data.exceeding.window/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectThenServerWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.with.padding/client",
+        "${scripts}/connected.then.client.write.data.with.padding/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectThenClientWritesDataWithPadding() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.server.write.data.with.padding/client",
+        "${scripts}/connected.then.server.write.data.with.padding/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectThenServerWritesDataWithPadding() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.exchange.bulk.data/client",
+        "${scripts}/connected.then.exchange.bulk.data/server"})
+    @ScriptProperty({
+        "serverAccept \"nukleus://streams/socks#0\"",
+        "totalSize 1048576"})
+    public void shouldConnectThenExchangeBulkData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.concurrent.streams/client",
+        "${scripts}/connected.concurrent.streams/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectConcurrentStreams() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.weighted.targets/client",
+        "${scripts}/connected.weighted.targets/server"})
+    @ScriptProperty({
+        "serverAccept \"nukleus://streams/socks#0\"",
+        "alternateConnect \"nukleus://streams/socks#1\"",
+        "alternateAccept \"nukleus://streams/socks#1\""})
+    public void shouldConnectWeightedTargets() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.cache.miss/client",
+        "${scripts}/connected.domain.resolved.cache.miss/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectDomainResolvedOnCacheMiss() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.cache.hit/client",
+        "${scripts}/connected.domain.resolved.cache.hit/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectDomainResolvedOnCacheHit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.cache.expired/client",
+        "${scripts}/connected.domain.resolved.cache.expired/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectDomainResolvedOnCacheExpired() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.awaitBarrier("FIRST_CLOSED");
+        k3po.notifyBarrier("TTL_EXPIRED");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.coalesced/client",
+        "${scripts}/connected.domain.resolved.coalesced/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectDomainResolvedCoalesced() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.connection.refused.cache.hit/client",
+        "${scripts}/rejected.connection.refused.cache.hit/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldRejectConnectionRefusedOnCacheHit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.connection.refused.cache.expired/client",
+        "${scripts}/rejected.connection.refused.cache.expired/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldConnectAfterConnectionRefusedCacheExpired() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.awaitBarrier("FIRST_REJECTED");
+        k3po.notifyBarrier("TTL_EXPIRED");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.shared.budget/client",
+        "${scripts}/connected.shared.budget/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldShareBudgetAcrossConnectedStreams() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.window.withheld/client",
+        "${scripts}/connected.then.client.write.data.window.withheld/nukleus",
+        "${scripts}/connected.then.client.write.data.window.withheld/server"})
+    public void shouldWithholdWindowFromFastClient() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.buffer.limit.exceeded/client",
+        "${scripts}/connected.then.client.write.data.buffer.limit.exceeded/nukleus",
+        "${scripts}/connected.then.client.write.data.buffer.limit.exceeded/server"})
+    public void shouldResetFastClientWhenBufferLimitExceeded() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.idle.timeout/client",
+        "${scripts}/connected.then.idle.timeout/nukleus",
+        "${scripts}/connected.then.idle.timeout/server"})
+    public void shouldAbortWhenConnectedIdleTimesOut() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.concurrent.sessions.exceeded/client",
+        "${scripts}/rejected.concurrent.sessions.exceeded/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldRejectWhenConcurrentSessionsExceeded() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.rate.limited/client",
+        "${scripts}/connected.then.client.write.data.rate.limited/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldPaceClientDataByRateLimit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.priority.classes/client",
+        "${scripts}/connected.priority.classes/nukleus",
+        "${scripts}/connected.priority.classes/server"})
+    public void shouldGrantSharedCreditByPriorityClass() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.priority.weighted/client",
+        "${scripts}/connected.priority.weighted/nukleus",
+        "${scripts}/connected.priority.weighted/server"})
+    public void shouldSplitSharedCreditByPriorityWeight() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
 }
@@ -0,0 +1,87 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.nukleus.socks.stream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.ScriptProperty;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+public class MultiplexedIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("scripts", "org/reaktivity/specification/nukleus/socks/streams/multiplexed");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(10, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${scripts}/sessions.opened/client",
+        "${scripts}/sessions.opened/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldOpenSessions() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/sessions.opened.then.interleave.data/client",
+        "${scripts}/sessions.opened.then.interleave.data/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldInterleaveSessionData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/sessions.opened.then.client.end.session/client",
+        "${scripts}/sessions.opened.then.client.end.session/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldHalfCloseSession() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/sessions.opened.then.client.reset.session/client",
+        "${scripts}/sessions.opened.then.client.reset.session/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldResetSession() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT");
+        k3po.finish();
+    }
+}
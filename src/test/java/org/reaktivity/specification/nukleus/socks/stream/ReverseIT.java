@@ -168,4 +168,150 @@ public class ReverseIT
         k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.client.write.data.exceeding.window/client",
+        "${scripts}/accepted.then.client.write.data.exceeding.window/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldAcceptThenClientWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.exceeding.window/client",
+        "${scripts}/accepted.then.server.write.data.exceeding.window/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldAcceptThenServerWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.client.write.data.with.padding/client",
+        "${scripts}/accepted.then.client.write.data.with.padding/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldAcceptThenClientWritesDataWithPadding() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.with.padding/client",
+        "${scripts}/accepted.then.server.write.data.with.padding/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldAcceptThenServerWritesDataWithPadding() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.exchange.bulk.data/client",
+        "${scripts}/accepted.then.exchange.bulk.data/server"})
+    @ScriptProperty({
+        "serverAccept \"nukleus://streams/socks#0\"",
+        "totalSize 1048576"})
+    public void shouldAcceptThenExchangeBulkData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.concurrent.streams/client",
+        "${scripts}/accepted.concurrent.streams/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldAcceptConcurrentStreams() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.shared.budget/client",
+        "${scripts}/accepted.shared.budget/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldShareBudgetAcrossAcceptedStreams() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.window.withheld/client",
+        "${scripts}/accepted.then.server.write.data.window.withheld/nukleus",
+        "${scripts}/accepted.then.server.write.data.window.withheld/server"})
+    public void shouldWithholdWindowFromFastServer() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.buffer.limit.exceeded/client",
+        "${scripts}/accepted.then.server.write.data.buffer.limit.exceeded/nukleus",
+        "${scripts}/accepted.then.server.write.data.buffer.limit.exceeded/server"})
+    public void shouldResetFastServerWhenBufferLimitExceeded() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.idle.timeout/client",
+        "${scripts}/accepted.then.idle.timeout/nukleus",
+        "${scripts}/accepted.then.idle.timeout/server"})
+    public void shouldAbortWhenAcceptedIdleTimesOut() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.rate.limited/client",
+        "${scripts}/accepted.then.server.write.data.rate.limited/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/socks#0\"")
+    public void shouldPaceServerDataByRateLimit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.priority.classes/client",
+        "${scripts}/accepted.priority.classes/nukleus",
+        "${scripts}/accepted.priority.classes/server"})
+    public void shouldGrantSharedCreditByPriorityClass() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
 }
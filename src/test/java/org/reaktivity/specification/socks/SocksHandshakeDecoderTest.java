@@ -0,0 +1,499 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.socks;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.ADDRESS_TYPE_DOMAIN_NAME;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.ADDRESS_TYPE_IPV4;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.ADDRESS_TYPE_IPV6;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.COMMAND_BIND;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.COMMAND_CONNECT;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.COMMAND_UDP_ASSOCIATE;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.REPLY_ADDRESS_TYPE_NOT_SUPPORTED;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.REPLY_COMMAND_NOT_SUPPORTED;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.REPLY_GENERAL_FAILURE;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.STATE_GREETED;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.STATE_GREETING;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.STATE_REJECTED;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.STATE_REQUEST;
+import static org.reaktivity.specification.socks.SocksHandshakeDecoder.STATE_REQUESTED;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SocksHandshakeDecoderTest
+{
+    private static final String RFC1928_SCRIPT =
+        "/org/reaktivity/specification/socks/rfc1928/handshake/succeeded.no.authentication.required/client.rpt";
+
+    private static final Pattern STATEMENT_TOKEN = Pattern.compile("\\[([^\\]]*)\\]|\"([^\"]*)\"|short\\s+(\\d+)");
+
+    private SocksHandshakeDecoder decoder;
+
+    @Before
+    public void setUp()
+    {
+        decoder = new SocksHandshakeDecoder();
+    }
+
+    @Test
+    public void shouldDecodeGreeting()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {0x05, 0x02, 0x00, 0x02});
+
+        assertEquals(STATE_GREETING, decoder.state());
+        assertEquals(2, decoder.remaining());
+        assertEquals(4, decoder.decode(buffer, 0, 4));
+        assertEquals(STATE_GREETED, decoder.state());
+        assertEquals(4, decoder.remaining());
+        assertTrue(decoder.hasMethod(0x00));
+        assertTrue(decoder.hasMethod(0x02));
+        assertFalse(decoder.hasMethod(0x01));
+        assertFalse(decoder.hasMethod(0xff));
+    }
+
+    @Test
+    public void shouldDecodeGreetingWithoutMethods()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {0x05, 0x00});
+
+        assertEquals(2, decoder.decode(buffer, 0, 2));
+        assertEquals(STATE_GREETED, decoder.state());
+        assertFalse(decoder.hasMethod(0x00));
+    }
+
+    @Test
+    public void shouldDecodeGreetingWithHighMethods()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {0x05, 0x03, (byte) 0x80, (byte) 0xc0, (byte) 0xfe});
+
+        decoder.decode(buffer, 0, 5);
+
+        assertTrue(decoder.hasMethod(0x80));
+        assertTrue(decoder.hasMethod(0xc0));
+        assertTrue(decoder.hasMethod(0xfe));
+        assertFalse(decoder.hasMethod(0xff));
+        assertFalse(decoder.hasMethod(0x00));
+    }
+
+    @Test
+    public void shouldStopAtGreetingDecisionPoint()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {0x05, 0x01, 0x00, 0x05, 0x01});
+
+        assertEquals(3, decoder.decode(buffer, 0, 5));
+        assertEquals(STATE_GREETED, decoder.state());
+        assertEquals(5, decoder.decode(buffer, 3, 5));
+        assertEquals(STATE_REQUEST, decoder.state());
+        assertEquals(2, decoder.remaining());
+    }
+
+    @Test
+    public void shouldReportRemainingBytesForEachByte()
+    {
+        byte[] bytes = {
+            0x05, 0x01, 0x00,
+            0x05, 0x01, 0x00, 0x03, 0x0b, 'e', 'x', 'a', 'm', 'p', 'l', 'e', '.', 'c', 'o', 'm', 0x1f, (byte) 0x90
+        };
+        int[] remaining = {
+            2, 1, 1,
+            4, 3, 2, 1, 1, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1
+        };
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+
+        for (int offset = 0; offset < bytes.length; offset++)
+        {
+            assertEquals("offset " + offset, remaining[offset], decoder.remaining());
+            assertEquals(offset + 1, decoder.decode(buffer, offset, offset + 1));
+        }
+
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertEquals(0, decoder.remaining());
+    }
+
+    @Test
+    public void shouldDecodeConnectRequestWithDomainName()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {
+            0x05, 0x01, 0x00,
+            0x05, 0x01, 0x00, 0x03, 0x0b, 'e', 'x', 'a', 'm', 'p', 'l', 'e', '.', 'c', 'o', 'm', 0x1f, (byte) 0x90
+        });
+
+        assertEquals(3, decoder.decode(buffer, 0, 21));
+        assertEquals(21, decoder.decode(buffer, 3, 21));
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertEquals(COMMAND_CONNECT, decoder.command());
+        assertEquals(ADDRESS_TYPE_DOMAIN_NAME, decoder.addressType());
+        assertEquals("example.com", decoder.address().getStringWithoutLengthAscii(0, decoder.address().capacity()));
+        assertEquals(8080, decoder.port());
+    }
+
+    @Test
+    public void shouldDecodeBindRequestWithIpv4Address()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {
+            0x05, 0x02, 0x00, 0x01, (byte) 0xc0, (byte) 0xa8, 0x00, 0x01, 0x7f, (byte) 0xff
+        });
+        decoder.decode(new UnsafeBuffer(new byte[] {0x05, 0x01, 0x00}), 0, 3);
+
+        assertEquals(10, decoder.decode(buffer, 0, 10));
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertEquals(COMMAND_BIND, decoder.command());
+        assertEquals(ADDRESS_TYPE_IPV4, decoder.addressType());
+        assertEquals(4, decoder.address().capacity());
+        assertEquals(0xc0a80001, decoder.address().getInt(0, BIG_ENDIAN));
+        assertEquals(32767, decoder.port());
+    }
+
+    @Test
+    public void shouldDecodeRequestWithIpv6AddressAcrossSlices()
+    {
+        byte[] bytes = {
+            0x05, 0x01, 0x00,
+            0x05, 0x01, 0x00, 0x04,
+            (byte) 0xfd, 0x12, 0x34, 0x56, 0x78, (byte) 0x9a, 0x00, 0x01,
+            0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01,
+            0x01, (byte) 0xbb
+        };
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+
+        int progress = 0;
+        progress = decoder.decode(buffer, progress, 2);
+        progress = decoder.decode(buffer, progress, 5);
+        progress = decoder.decode(buffer, progress, 10);
+        assertEquals(10, progress);
+        assertEquals(15, decoder.remaining());
+        progress = decoder.decode(buffer, progress, 24);
+        assertEquals(1, decoder.remaining());
+        progress = decoder.decode(buffer, progress, bytes.length);
+
+        assertEquals(bytes.length, progress);
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertEquals(ADDRESS_TYPE_IPV6, decoder.addressType());
+        assertEquals(16, decoder.address().capacity());
+        assertEquals((byte) 0xfd, decoder.address().getByte(0));
+        assertEquals(0x01, decoder.address().getByte(15));
+        assertEquals(443, decoder.port());
+    }
+
+    @Test
+    public void shouldNotConsumeDataAfterRequest()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {
+            0x05, 0x01, 0x00,
+            0x05, 0x01, 0x00, 0x01, 0x7f, 0x00, 0x00, 0x01, 0x1f, (byte) 0x90,
+            'h', 'e', 'l', 'l', 'o'
+        });
+
+        int progress = decoder.decode(buffer, 0, 18);
+        progress = decoder.decode(buffer, progress, 18);
+
+        assertEquals(13, progress);
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertEquals(13, decoder.decode(buffer, progress, 18));
+    }
+
+    @Test
+    public void shouldRejectGreetingWithInvalidVersion()
+    {
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {0x04, 0x01, 0x00});
+
+        assertEquals(1, decoder.decode(buffer, 0, 3));
+        assertEquals(STATE_REJECTED, decoder.state());
+        assertEquals(REPLY_GENERAL_FAILURE, decoder.reply());
+        assertEquals(0, decoder.remaining());
+        assertEquals(1, decoder.decode(buffer, 1, 3));
+    }
+
+    @Test
+    public void shouldRejectRequestWithInvalidVersion()
+    {
+        assertRejected(new byte[] {0x04, 0x01, 0x00, 0x01}, REPLY_GENERAL_FAILURE);
+    }
+
+    @Test
+    public void shouldRejectRequestWithUnsupportedCommand()
+    {
+        assertRejected(new byte[] {0x05, 0x04, 0x00, 0x01}, REPLY_COMMAND_NOT_SUPPORTED);
+    }
+
+    @Test
+    public void shouldRejectRequestWithZeroCommand()
+    {
+        assertRejected(new byte[] {0x05, 0x00, 0x00, 0x01}, REPLY_COMMAND_NOT_SUPPORTED);
+    }
+
+    @Test
+    public void shouldRejectRequestWithInvalidReserved()
+    {
+        assertRejected(new byte[] {0x05, 0x01, 0x01, 0x01}, REPLY_GENERAL_FAILURE);
+    }
+
+    @Test
+    public void shouldRejectRequestWithUnsupportedAddressType()
+    {
+        assertRejected(new byte[] {0x05, 0x01, 0x00, 0x00}, REPLY_ADDRESS_TYPE_NOT_SUPPORTED);
+    }
+
+    @Test
+    public void shouldRejectRequestWithEmptyDomainName()
+    {
+        assertRejected(new byte[] {0x05, 0x01, 0x00, 0x03, 0x00, 0x1f, (byte) 0x90}, REPLY_GENERAL_FAILURE);
+    }
+
+    @Test
+    public void shouldDecodeAgainAfterReset()
+    {
+        assertRejected(new byte[] {0x05, 0x04, 0x00, 0x01}, REPLY_COMMAND_NOT_SUPPORTED);
+
+        decoder.reset();
+        assertEquals(STATE_GREETING, decoder.state());
+        assertEquals(0, decoder.reply());
+        assertFalse(decoder.hasMethod(0x00));
+
+        DirectBuffer buffer = new UnsafeBuffer(new byte[] {
+            0x05, 0x01, 0x02,
+            0x05, 0x01, 0x00, 0x03, 0x01, 'a', 0x00, 0x50
+        });
+        int progress = decoder.decode(buffer, 0, 11);
+        progress = decoder.decode(buffer, progress, 11);
+
+        assertEquals(11, progress);
+        assertEquals(STATE_REQUESTED, decoder.state());
+        assertTrue(decoder.hasMethod(0x02));
+        assertEquals(1, decoder.address().capacity());
+        assertEquals(80, decoder.port());
+    }
+
+    @Test
+    public void shouldDecodeRfc1928ClientScripts() throws Exception
+    {
+        final Path root = Paths.get(getClass().getResource(RFC1928_SCRIPT).toURI()).getParent().getParent().getParent();
+        final List<Path> scripts;
+        try (Stream<Path> paths = Files.walk(root))
+        {
+            scripts = paths.filter(p -> p.endsWith("client.rpt")).sorted().collect(Collectors.toList());
+        }
+
+        assertFalse(scripts.isEmpty());
+
+        for (Path script : scripts)
+        {
+            final String name = root.relativize(script.getParent()).toString();
+            final List<String> statements = statements(script);
+            final byte[] writes = writes(statements);
+            final List<byte[]> reads = reads(statements);
+            final DirectBuffer buffer = new UnsafeBuffer(writes);
+
+            if (reads.isEmpty())
+            {
+                final SocksHandshakeDecoder pending = new SocksHandshakeDecoder();
+                assertEquals(name, writes.length, pending.decode(buffer, 0, writes.length));
+                assertEquals(name, STATE_GREETING, pending.state());
+                continue;
+            }
+
+            final int method = reads.get(0)[1] & 0xff;
+
+            final SocksHandshakeDecoder whole = new SocksHandshakeDecoder();
+            int wholeProgress = whole.decode(buffer, 0, writes.length);
+            if (whole.hasMethod(method))
+            {
+                wholeProgress = decodeAll(whole, buffer, wholeProgress, writes.length);
+            }
+
+            final SocksHandshakeDecoder partial = new SocksHandshakeDecoder();
+            int partialProgress = 0;
+            for (int limit = 1; limit <= writes.length && partialProgress < limit; limit++)
+            {
+                partialProgress = partial.decode(buffer, partialProgress, limit);
+                if (partial.state() == STATE_GREETED && !partial.hasMethod(method))
+                {
+                    break;
+                }
+            }
+
+            assertEquals(name, wholeProgress, partialProgress);
+            assertEquals(name, whole.state(), partial.state());
+            assertEquals(name, whole.reply(), partial.reply());
+            assertEquals(name, whole.command(), partial.command());
+            assertEquals(name, whole.port(), partial.port());
+            assertEquals(name, whole.address(), partial.address());
+            assertEquals(name, method != 0xff, whole.hasMethod(method));
+
+            if (reads.size() > 1)
+            {
+                final int reply = reads.get(1)[1] & 0xff;
+                if (reply == REPLY_COMMAND_NOT_SUPPORTED || reply == REPLY_ADDRESS_TYPE_NOT_SUPPORTED)
+                {
+                    assertEquals(name, STATE_REJECTED, whole.state());
+                    assertEquals(name, reply, whole.reply());
+                }
+                else
+                {
+                    assertEquals(name, STATE_REQUESTED, whole.state());
+                    assertEquals(name, expectedCommand(name), whole.command());
+                }
+            }
+            else
+            {
+                assertEquals(name, STATE_GREETED, whole.state());
+            }
+        }
+    }
+
+    private static int expectedCommand(
+        String name)
+    {
+        return name.startsWith("bind") ? COMMAND_BIND : name.startsWith("udp") ? COMMAND_UDP_ASSOCIATE : COMMAND_CONNECT;
+    }
+
+    private void assertRejected(
+        byte[] request,
+        int reply)
+    {
+        decoder.decode(new UnsafeBuffer(new byte[] {0x05, 0x01, 0x00}), 0, 3);
+        decoder.decode(new UnsafeBuffer(request), 0, request.length);
+
+        assertEquals(STATE_REJECTED, decoder.state());
+        assertEquals(reply, decoder.reply());
+        assertEquals(0, decoder.remaining());
+    }
+
+    private static int decodeAll(
+        SocksHandshakeDecoder decoder,
+        DirectBuffer buffer,
+        int offset,
+        int limit)
+    {
+        int progress = offset;
+        int previous;
+        do
+        {
+            previous = progress;
+            progress = decoder.decode(buffer, progress, limit);
+        }
+        while (progress != previous);
+        return progress;
+    }
+
+    private static List<String> statements(
+        Path script) throws Exception
+    {
+        final List<String> statements = new ArrayList<>();
+        for (String line : Files.readAllLines(script, UTF_8))
+        {
+            if (line.startsWith("#") || line.trim().isEmpty())
+            {
+                continue;
+            }
+
+            final String text = line.replaceAll("\\s+#.*$", "");
+            if (Character.isWhitespace(text.charAt(0)))
+            {
+                final int last = statements.size() - 1;
+                statements.set(last, statements.get(last) + " " + text.trim());
+            }
+            else
+            {
+                statements.add(text.trim());
+            }
+        }
+        return statements;
+    }
+
+    private static byte[] writes(
+        List<String> statements)
+    {
+        final ByteArrayOutputStream writes = new ByteArrayOutputStream();
+        for (String statement : statements)
+        {
+            if (statement.startsWith("write "))
+            {
+                final byte[] bytes = tokens(statement);
+                writes.write(bytes, 0, bytes.length);
+            }
+        }
+        return writes.toByteArray();
+    }
+
+    private static List<byte[]> reads(
+        List<String> statements)
+    {
+        final List<byte[]> reads = new ArrayList<>();
+        for (String statement : statements)
+        {
+            if (statement.startsWith("read "))
+            {
+                final byte[] bytes = tokens(statement);
+                if (bytes.length != 0)
+                {
+                    reads.add(bytes);
+                }
+            }
+        }
+        return reads;
+    }
+
+    private static byte[] tokens(
+        String statement)
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Matcher matcher = STATEMENT_TOKEN.matcher(statement);
+        while (matcher.find())
+        {
+            if (matcher.group(1) != null)
+            {
+                for (String octet : matcher.group(1).trim().split("\\s+"))
+                {
+                    if (octet.startsWith("0x") || octet.startsWith("0X"))
+                    {
+                        bytes.write(Integer.parseInt(octet.substring(2), 16));
+                    }
+                }
+            }
+            else if (matcher.group(2) != null)
+            {
+                final byte[] text = matcher.group(2).getBytes(UTF_8);
+                bytes.write(text, 0, text.length);
+            }
+            else
+            {
+                final int value = Integer.parseInt(matcher.group(3));
+                bytes.write(value >> 8);
+                bytes.write(value & 0xff);
+            }
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -15,23 +15,34 @@
  */
 package org.reaktivity.specification.socks.internal;
 
+import static java.util.Arrays.asList;
 import static java.util.Arrays.copyOfRange;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.kaazing.k3po.lang.internal.el.ExpressionFactoryUtils.newExpressionFactory;
 import static org.reaktivity.specification.socks.internal.SocksFunctions.parseByte;
 import static org.reaktivity.specification.socks.internal.SocksFunctions.parseShort;
+import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_DOMAIN_NAME;
 import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_IPV4_ADDRESS;
 import static org.reaktivity.specification.socks.internal.types.SocksAddressFW.KIND_IPV6_ADDRESS;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 import javax.el.ELContext;
 import javax.el.ExpressionFactory;
 import javax.el.ValueExpression;
 
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,7 +50,13 @@ import org.kaazing.k3po.lang.internal.el.ExpressionContext;
 import org.reaktivity.specification.socks.internal.types.OctetsFW;
 import org.reaktivity.specification.socks.internal.types.SocksAddressFW;
 import org.reaktivity.specification.socks.internal.types.control.SocksRouteExFW;
+import org.reaktivity.specification.socks.internal.types.control.SocksTargetSelection;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksCommandReplyFW;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksCommandRequestFW;
+import org.reaktivity.specification.socks.internal.types.rfc1928.SocksHandshakeFW;
 import org.reaktivity.specification.socks.internal.types.stream.SocksBeginExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksDataExFW;
+import org.reaktivity.specification.socks.internal.types.stream.SocksSessionExFW;
 
 public class SocksFunctionsTest
 {
@@ -472,91 +489,1771 @@ public class SocksFunctionsTest
         assertEquals(8080, beginEx.port());
     }
 
+    @Test
+    public void shouldBuildRouteExWithIpv4AddressBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .ipv4Address(new byte[]{127, 0, 0, 1})
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = routeEx.address();
+
+        assertEquals(KIND_IPV4_ADDRESS, address.kind());
+        OctetsFW ipv4Address = address.ipv4Address();
+        assertArrayEquals(new byte[]{127, 0, 0, 1},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(8080, routeEx.port());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithIpv4AddressInt() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .ipv4(0xc0a80001)
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = routeEx.address();
+
+        assertEquals(KIND_IPV4_ADDRESS, address.kind());
+        OctetsFW ipv4Address = address.ipv4Address();
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 0, 1},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(8080, routeEx.port());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithIpv6AddressBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .ipv6Address(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1})
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = routeEx.address();
+
+        assertEquals(KIND_IPV6_ADDRESS, address.kind());
+        OctetsFW ipv6Address = address.ipv6Address();
+        assertArrayEquals(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
+            copyOfRange(ipv6Address.buffer().byteArray(),
+                ipv6Address.offset(),
+                ipv6Address.limit()));
+        assertEquals(8080, routeEx.port());
+    }
+
+    @Test
+    public void shouldBuildBeginExWithIpv4AddressBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0)
+                                     .ipv4Address(new byte[]{(byte) 192, (byte) 168, 0, 1})
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = beginEx.address();
+
+        assertEquals(KIND_IPV4_ADDRESS, address.kind());
+        OctetsFW ipv4Address = address.ipv4Address();
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 0, 1},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(8080, beginEx.port());
+    }
+
+    @Test
+    public void shouldBuildBeginExWithIpv4AddressInt() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0)
+                                     .ipv4(0x7f000001)
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = beginEx.address();
+
+        assertEquals(KIND_IPV4_ADDRESS, address.kind());
+        OctetsFW ipv4Address = address.ipv4Address();
+        assertArrayEquals(new byte[]{127, 0, 0, 1},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(8080, beginEx.port());
+    }
+
+    @Test
+    public void shouldBuildBeginExWithIpv4AddressLeadingZeros() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0)
+                                     .address("010.001.255.00")
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = beginEx.address();
+
+        assertEquals(KIND_IPV4_ADDRESS, address.kind());
+        OctetsFW ipv4Address = address.ipv4Address();
+        assertArrayEquals(new byte[]{10, 1, (byte) 255, 0},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(8080, beginEx.port());
+    }
+
+    @Test
+    public void shouldBuildBeginExWithIpv6AddressBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0)
+                                     .ipv6Address(new byte[]{0x20, 0x01, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0x73, 0x34})
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+        SocksAddressFW address = beginEx.address();
+
+        assertEquals(KIND_IPV6_ADDRESS, address.kind());
+        OctetsFW ipv6Address = address.ipv6Address();
+        assertArrayEquals(new BigInteger("20010000000000000000000000007334", 16).toByteArray(),
+            copyOfRange(ipv6Address.buffer().byteArray(),
+                ipv6Address.offset(),
+                ipv6Address.limit()));
+        assertEquals(8080, beginEx.port());
+    }
+
+    @Test
+    public void shouldBuildRouteExIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[128]);
+        int length = SocksFunctions.routeEx()
+                                   .address("example.com")
+                                   .port(8080)
+                                   .buildInto(buffer, 8);
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(buffer, 8, 8 + length);
+
+        assertEquals("example.com", routeEx.address().domainName().asString());
+        assertEquals(8080, routeEx.port());
+        assertEquals(length, routeEx.sizeof());
+    }
+
+    @Test
+    public void shouldBuildBeginExIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+        int length = SocksFunctions.beginEx()
+                                   .typeId(0x01)
+                                   .address("192.168.0.1")
+                                   .port(32767)
+                                   .buildInto(buffer, 8);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 8, 8 + length);
+
+        assertEquals(0x01, beginEx.typeId());
+        assertEquals(KIND_IPV4_ADDRESS, beginEx.address().kind());
+        assertEquals(32767, beginEx.port());
+        assertEquals(length, beginEx.sizeof());
+    }
+
+    @Test
+    public void shouldBuildDataExWithDomainName() throws Exception
+    {
+        byte[] bytes = SocksFunctions.dataEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(53)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, dataEx.typeId());
+        assertEquals("example.com", dataEx.address().domainName().asString());
+        assertEquals(53, dataEx.port());
+    }
+
+    @Test
+    public void shouldBuildDataExWithIpv4AddressBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.dataEx()
+                                     .typeId(0x01)
+                                     .ipv4Address(new byte[]{(byte) 192, (byte) 168, 0, 1})
+                                     .port(53)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(buffer, 0, buffer.capacity());
+        OctetsFW ipv4Address = dataEx.address().ipv4Address();
+
+        assertEquals(KIND_IPV4_ADDRESS, dataEx.address().kind());
+        assertArrayEquals(new byte[]{(byte) 192, (byte) 168, 0, 1},
+            copyOfRange(ipv4Address.buffer().byteArray(),
+                ipv4Address.offset(),
+                ipv4Address.limit()));
+        assertEquals(53, dataEx.port());
+    }
+
+    @Test
+    public void shouldBuildDataExWithIpv6AddressBytes() throws Exception
+    {
+        byte[] address = new byte[16];
+        address[15] = 1;
+        byte[] bytes = SocksFunctions.dataEx()
+                                     .typeId(0x01)
+                                     .ipv6Address(address)
+                                     .port(443)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(KIND_IPV6_ADDRESS, dataEx.address().kind());
+        assertEquals(443, dataEx.port());
+    }
+
+    @Test
+    public void shouldBuildDataExIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+        int length = SocksFunctions.dataEx()
+                                   .typeId(0x01)
+                                   .ipv4(0xc0a80001)
+                                   .port(53)
+                                   .buildInto(buffer, 8);
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(buffer, 8, 8 + length);
+
+        assertEquals(0x01, dataEx.typeId());
+        assertEquals(KIND_IPV4_ADDRESS, dataEx.address().kind());
+        assertEquals(53, dataEx.port());
+        assertEquals(length, dataEx.sizeof());
+    }
+
+    @Test
+    public void shouldReuseDataExBuilder() throws Exception
+    {
+        SocksFunctions.SocksDataExBuilder builder = SocksFunctions.dataEx();
+        builder.typeId(0x01).address("example.com").port(53).build();
+
+        SocksFunctions.SocksDataExBuilder reused = SocksFunctions.dataEx();
+        byte[] bytes = reused.ipv4(0x7f000001).port(80).build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertSame(builder, reused);
+        assertEquals(0x00, dataEx.typeId());
+        assertEquals(KIND_IPV4_ADDRESS, dataEx.address().kind());
+        assertEquals(80, dataEx.port());
+    }
+
+    @Test
+    public void shouldCacheDataEx() throws Exception
+    {
+        long hits = SocksFunctions.extensionCacheHits();
+        long misses = SocksFunctions.extensionCacheMisses();
+
+        byte[] dataEx1 = SocksFunctions.dataEx()
+                                       .typeId(0x01)
+                                       .address("cached.example.com")
+                                       .port(53)
+                                       .build();
+        byte[] dataEx2 = SocksFunctions.dataEx()
+                                       .typeId(0x01)
+                                       .address("cached.example.com")
+                                       .port(53)
+                                       .build();
+
+        assertNotSame(dataEx1, dataEx2);
+        assertArrayEquals(dataEx1, dataEx2);
+        assertEquals(hits + 1, SocksFunctions.extensionCacheHits());
+        assertEquals(misses + 1, SocksFunctions.extensionCacheMisses());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithUdpReassembly() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .udpReassemblyLimit(65536L)
+                                     .udpReassemblyTimeout(5000L)
+                                     .build();
+        byte[] again = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .udpReassemblyLimit(65536L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        SocksRouteExFW routeExAgain = new SocksRouteExFW().wrap(new UnsafeBuffer(again), 0, again.length);
+
+        assertEquals("example.com", routeEx.address().domainName().asString());
+        assertEquals(8080, routeEx.port());
+        assertEquals(65536L, routeEx.udpReassemblyLimit());
+        assertEquals(5000L, routeEx.udpReassemblyTimeout());
+        assertEquals(65536L, routeExAgain.udpReassemblyLimit());
+        assertEquals(0L, routeExAgain.udpReassemblyTimeout());
+    }
+
+    @Test
+    public void shouldNotCacheRouteExWithUdpReassembly() throws Exception
+    {
+        byte[] routeEx1 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .udpReassemblyTimeout(5000L)
+                                        .build();
+        byte[] routeEx2 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .udpReassemblyTimeout(5000L)
+                                        .build();
+        byte[] routeEx3 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+
+        assertNotSame(routeEx1, routeEx2);
+        assertArrayEquals(routeEx1, routeEx2);
+        assertNotSame(routeEx1, routeEx3);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithIpv4Prefix() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("10.0.0.0/8")
+                                     .portRange(8080, 8089)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(KIND_IPV4_ADDRESS, routeEx.address().kind());
+        assertEquals(10, routeEx.address().ipv4Address().value().getByte(0));
+        assertEquals(8, routeEx.prefixLength());
+        assertEquals(8080, routeEx.port());
+        assertEquals(8089, routeEx.portRangeEnd());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithIpv6Prefix() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("fd12:3456:789a::/48")
+                                     .port(8080)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(KIND_IPV6_ADDRESS, routeEx.address().kind());
+        assertEquals(48, routeEx.prefixLength());
+        assertEquals(8080, routeEx.portRangeEnd());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithPrefixLength() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .ipv4Address(new byte[]{(byte) 192, (byte) 168, 0, 0})
+                                     .prefixLength(16)
+                                     .port(8080)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(16, routeEx.prefixLength());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithFullPrefixLengthByDefault() throws Exception
+    {
+        byte[] ipv4 = SocksFunctions.routeEx()
+                                    .address("192.168.0.1")
+                                    .port(8080)
+                                    .build();
+        byte[] ipv6 = SocksFunctions.routeEx()
+                                    .address("::1")
+                                    .port(8080)
+                                    .build();
+        byte[] domain = SocksFunctions.routeEx()
+                                      .address("example.com")
+                                      .port(8080)
+                                      .build();
+
+        assertEquals(32, new SocksRouteExFW().wrap(new UnsafeBuffer(ipv4), 0, ipv4.length).prefixLength());
+        assertEquals(128, new SocksRouteExFW().wrap(new UnsafeBuffer(ipv6), 0, ipv6.length).prefixLength());
+        assertEquals(0, new SocksRouteExFW().wrap(new UnsafeBuffer(domain), 0, domain.length).prefixLength());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithWildcardDomainName() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("*.example.com")
+                                     .port(8080)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals("*.example.com", routeEx.address().domainName().asString());
+        assertEquals(0, routeEx.prefixLength());
+    }
+
+    @Test
+    public void shouldNotCacheRouteExWithPortRange() throws Exception
+    {
+        byte[] routeEx1 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .portRange(8080, 8089)
+                                        .build();
+        byte[] routeEx2 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+
+        assertNotSame(routeEx1, routeEx2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithHostBitsBeyondPrefix() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.1.0.0/8")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithPartialHostBitsBeyondPrefix() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.64.0.0/9")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithPrefixLengthExceedingAddress() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.0.0.0/33")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativePrefixLength() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.0.0.0")
+                      .prefixLength(-2)
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithMissingPrefixLength() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.0.0.0/")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidPrefixLength() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("10.0.0.0/8x")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithDomainNamePrefix() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com/8")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidWildcardDomainName() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("*.-example.com")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithWildcardDomainName() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("*.example.com")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvertedPortRange() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .portRange(8089, 8080)
+                      .build();
+    }
+
+    @Test
+    public void shouldBuildRouteExWithWeightedTargets() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .target("target#0", 2)
+                                     .target("target#1", 1)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        List<String> targets = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        routeEx.targets().forEach(t ->
+        {
+            targets.add(t.target().asString());
+            weights.add(t.weight());
+        });
+
+        assertEquals(SocksTargetSelection.WEIGHTED_ROUND_ROBIN, routeEx.selection().get());
+        assertEquals(asList("target#0", "target#1"), targets);
+        assertEquals(asList(2, 1), weights);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithHashSelection() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .selection("DESTINATION_HASH")
+                                     .target("target#0", 1)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(SocksTargetSelection.DESTINATION_HASH, routeEx.selection().get());
+        assertEquals(1, routeEx.targets().fieldCount());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithoutTargets() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(SocksTargetSelection.WEIGHTED_ROUND_ROBIN, routeEx.selection().get());
+        assertTrue(routeEx.targets().isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheRouteExWithTargets() throws Exception
+    {
+        byte[] routeEx1 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .target("target#1", 1)
+                                        .build();
+        byte[] routeEx2 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] routeEx3 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .selection("SOURCE_HASH")
+                                        .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(routeEx2), 0, routeEx2.length);
+
+        assertNotSame(routeEx1, routeEx2);
+        assertNotSame(routeEx2, routeEx3);
+        assertTrue(routeEx.targets().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithUnknownSelection() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .selection("RANDOM");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativeTargetWeight() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .target("target#0", -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithExcessiveTargetWeight() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .target("target#0", 65536);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithTooManyTargets() throws Exception
+    {
+        SocksFunctions.SocksRouteExBuilder routeEx = SocksFunctions.routeEx();
+        for (int i = 0; i <= 16; i++)
+        {
+            routeEx.target("target#" + i, 1);
+        }
+    }
+
+    @Test
+    public void shouldBuildRouteExWithPortAtFixedOffset() throws Exception
+    {
+        byte[] ipv4 = SocksFunctions.routeEx()
+                                    .address("192.168.0.1")
+                                    .port(8080)
+                                    .build();
+        byte[] domain = SocksFunctions.routeEx()
+                                      .address("example.com")
+                                      .port(8080)
+                                      .build();
+        DirectBuffer ipv4Buffer = new UnsafeBuffer(ipv4);
+        DirectBuffer domainBuffer = new UnsafeBuffer(domain);
+
+        assertEquals(0, SocksRouteExFW.FIELD_OFFSET_PORT);
+        assertEquals(8080, ipv4Buffer.getShort(SocksRouteExFW.FIELD_OFFSET_PORT) & 0xffff);
+        assertEquals(8080, domainBuffer.getShort(SocksRouteExFW.FIELD_OFFSET_PORT) & 0xffff);
+        assertEquals(KIND_IPV4_ADDRESS, ipv4Buffer.getByte(SocksRouteExFW.FIELD_OFFSET_ADDRESS));
+        assertEquals(KIND_DOMAIN_NAME, domainBuffer.getByte(SocksRouteExFW.FIELD_OFFSET_ADDRESS));
+    }
+
+    @Test
+    public void shouldBuildBeginExWithPortAtFixedOffset() throws Exception
+    {
+        byte[] ipv6 = SocksFunctions.beginEx()
+                                    .typeId(0x01)
+                                    .address("::1")
+                                    .port(32767)
+                                    .build();
+        byte[] domain = SocksFunctions.beginEx()
+                                      .typeId(0x01)
+                                      .address("example.com")
+                                      .port(32767)
+                                      .build();
+        DirectBuffer ipv6Buffer = new UnsafeBuffer(ipv6);
+        DirectBuffer domainBuffer = new UnsafeBuffer(domain);
+
+        assertEquals(Integer.BYTES, SocksBeginExFW.FIELD_OFFSET_PORT);
+        assertEquals(32767, ipv6Buffer.getShort(SocksBeginExFW.FIELD_OFFSET_PORT) & 0xffff);
+        assertEquals(32767, domainBuffer.getShort(SocksBeginExFW.FIELD_OFFSET_PORT) & 0xffff);
+        assertEquals(KIND_IPV6_ADDRESS, ipv6Buffer.getByte(SocksBeginExFW.FIELD_OFFSET_ADDRESS));
+        assertEquals(KIND_DOMAIN_NAME, domainBuffer.getByte(SocksBeginExFW.FIELD_OFFSET_ADDRESS));
+    }
+
+    @Test
+    public void shouldBuildDataExWithPortAtFixedOffset() throws Exception
+    {
+        byte[] dataEx = SocksFunctions.dataEx()
+                                      .typeId(0x01)
+                                      .fragment(0x01)
+                                      .address("example.com")
+                                      .port(53)
+                                      .build();
+        DirectBuffer buffer = new UnsafeBuffer(dataEx);
+
+        assertEquals(53, buffer.getShort(SocksDataExFW.FIELD_OFFSET_PORT) & 0xffff);
+        assertEquals(KIND_DOMAIN_NAME, buffer.getByte(SocksDataExFW.FIELD_OFFSET_ADDRESS));
+    }
+
+    @Test
+    public void shouldBuildBeginExWithResolvedAddresses() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(8080)
+                                     .ttl(300L)
+                                     .resolved("192.168.0.10")
+                                     .resolved("2001:db8::10")
+                                     .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        List<Integer> kinds = new ArrayList<>();
+        beginEx.resolved().forEach(a -> kinds.add(a.kind()));
+
+        assertEquals("example.com", beginEx.address().domainName().asString());
+        assertEquals(8080, beginEx.port());
+        assertEquals(300L, beginEx.ttl());
+        assertEquals(asList(KIND_IPV4_ADDRESS, KIND_IPV6_ADDRESS), kinds);
+    }
+
+    @Test
+    public void shouldBuildBeginExWithoutResolvedAddresses() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(0L, beginEx.ttl());
+        assertTrue(beginEx.resolved().isEmpty());
+    }
+
+    @Test
+    public void shouldNotCacheBeginExWithResolvedAddresses() throws Exception
+    {
+        byte[] beginEx1 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .resolved("192.168.0.10")
+                                        .build();
+        byte[] beginEx2 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] beginEx3 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .ttl(300L)
+                                        .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(beginEx2), 0, beginEx2.length);
+
+        assertNotSame(beginEx1, beginEx2);
+        assertNotSame(beginEx2, beginEx3);
+        assertTrue(beginEx.resolved().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithResolvedDomainName() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .resolved("example.com");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithTooManyResolvedAddresses() throws Exception
+    {
+        SocksFunctions.SocksBeginExBuilder beginEx = SocksFunctions.beginEx();
+        for (int i = 0; i <= 16; i++)
+        {
+            beginEx.resolved("192.168.0." + i);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithNegativeTtl() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .ttl(-1L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithExcessiveTtl() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .ttl(0x1_0000_0000L);
+    }
+
+    @Test
+    public void shouldBuildBeginExWithPriority() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(22)
+                                     .priority(7, 3)
+                                     .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(7, beginEx.priority());
+        assertEquals(3, beginEx.priorityWeight());
+        assertEquals("example.com", beginEx.address().domainName().asString());
+    }
+
+    @Test
+    public void shouldBuildBeginExWithDefaultPriority() throws Exception
+    {
+        byte[] bytes = SocksFunctions.beginEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(0, beginEx.priority());
+        assertEquals(1, beginEx.priorityWeight());
+    }
+
+    @Test
+    public void shouldNotCacheBeginExWithPriority() throws Exception
+    {
+        byte[] beginEx1 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("priority.example.com")
+                                        .port(8080)
+                                        .priority(7, 1)
+                                        .build();
+        byte[] beginEx2 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("priority.example.com")
+                                        .port(8080)
+                                        .build();
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(new UnsafeBuffer(beginEx2), 0, beginEx2.length);
+
+        assertNotSame(beginEx1, beginEx2);
+        assertEquals(0, beginEx.priority());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithPriority() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(22)
+                                     .priority(7, 3)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(7, routeEx.priority());
+        assertEquals(3, routeEx.priorityWeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithExcessivePriority() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .priority(0x100, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithZeroPriorityWeight() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .priority(7, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithExcessivePriorityWeight() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(22)
+                      .priority(7, 0x10000);
+    }
+
+    @Test
+    public void shouldBuildDataExWithFragment() throws Exception
+    {
+        byte[] dataEx1 = SocksFunctions.dataEx()
+                                       .typeId(0x01)
+                                       .fragment(0x81)
+                                       .address("example.com")
+                                       .port(53)
+                                       .build();
+        byte[] dataEx2 = SocksFunctions.dataEx()
+                                       .typeId(0x01)
+                                       .fragment(0x81)
+                                       .address("example.com")
+                                       .port(53)
+                                       .build();
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(new UnsafeBuffer(dataEx1), 0, dataEx1.length);
+
+        assertNotSame(dataEx1, dataEx2);
+        assertArrayEquals(dataEx1, dataEx2);
+        assertEquals(0x81, dataEx.fragment());
+        assertEquals("example.com", dataEx.address().domainName().asString());
+        assertEquals(53, dataEx.port());
+    }
+
+    @Test
+    public void shouldBuildDataExWithoutFragment() throws Exception
+    {
+        byte[] bytes = SocksFunctions.dataEx()
+                                     .typeId(0x01)
+                                     .address("example.com")
+                                     .port(53)
+                                     .build();
+        SocksDataExFW dataEx = new SocksDataExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(0x00, dataEx.fragment());
+    }
+
+    @Test
+    public void shouldLoadHandshakeFunctions() throws Exception
+    {
+        String expressionText = "${socks:request()" +
+            ".command(1)" +
+            ".address(\"example.com\")" +
+            ".port(8080)" +
+            ".build()}";
+        ValueExpression expression = factory.createValueExpression(ctx, expressionText, byte[].class);
+        byte[] request = (byte[]) expression.getValue(ctx);
+
+        assertNotNull(request);
+    }
+
+    @Test
+    public void shouldBuildHandshake() throws Exception
+    {
+        byte[] bytes = SocksFunctions.handshake()
+                                     .method(0x00)
+                                     .method(0x02)
+                                     .build();
+
+        assertArrayEquals(new byte[] {0x05, 0x02, 0x00, 0x02}, bytes);
+
+        SocksHandshakeFW handshake = new SocksHandshakeFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        assertEquals(5, handshake.version());
+        assertEquals(2, handshake.nmethods());
+        assertEquals(2, handshake.methods().sizeof());
+    }
+
+    @Test
+    public void shouldBuildHandshakeIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[16]);
+        int length = SocksFunctions.handshake()
+                                   .method(0x00)
+                                   .buildInto(buffer, 4);
+
+        assertEquals(3, length);
+        assertArrayEquals(new byte[] {0x05, 0x01, 0x00}, copyOfRange(buffer.byteArray(), 4, 7));
+    }
+
+    @Test
+    public void shouldBuildCommandRequestWithDomainName() throws Exception
+    {
+        byte[] bytes = SocksFunctions.request()
+                                     .command(0x01)
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+
+        assertArrayEquals(new byte[] {0x05, 0x01, 0x00, 0x03, 0x0b,
+                                      'e', 'x', 'a', 'm', 'p', 'l', 'e', '.', 'c', 'o', 'm',
+                                      0x1f, (byte) 0x90}, bytes);
+
+        SocksCommandRequestFW request = new SocksCommandRequestFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        assertEquals(5, request.version());
+        assertEquals(1, request.command());
+        assertEquals(0, request.reserved());
+        assertEquals("example.com", request.address().domainName().asString());
+        assertEquals(8080, request.port());
+    }
+
+    @Test
+    public void shouldBuildCommandRequestIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+        int length = SocksFunctions.request()
+                                   .command(0x02)
+                                   .address("::1")
+                                   .port(443)
+                                   .buildInto(buffer, 8);
+        SocksCommandRequestFW request = new SocksCommandRequestFW().wrap(buffer, 8, 8 + length);
+
+        assertEquals(2, request.command());
+        assertEquals(KIND_IPV6_ADDRESS, request.address().kind());
+        assertEquals(443, request.port());
+        assertEquals(22, length);
+    }
+
+    @Test
+    public void shouldBuildCommandReplyWithIpv4Address() throws Exception
+    {
+        byte[] bytes = SocksFunctions.reply()
+                                     .reply(0x00)
+                                     .address("192.168.0.1")
+                                     .port(32767)
+                                     .build();
+
+        assertArrayEquals(new byte[] {0x05, 0x00, 0x00, 0x01, (byte) 0xc0, (byte) 0xa8, 0x00, 0x01, 0x7f, (byte) 0xff}, bytes);
+
+        SocksCommandReplyFW reply = new SocksCommandReplyFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        assertEquals(5, reply.version());
+        assertEquals(0, reply.reply());
+        assertEquals(KIND_IPV4_ADDRESS, reply.address().kind());
+        assertEquals(32767, reply.port());
+    }
+
+    @Test
+    public void shouldBuildCommandReplyIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+        int length = SocksFunctions.reply()
+                                   .reply(0x05)
+                                   .address("example.com")
+                                   .port(80)
+                                   .buildInto(buffer, 0);
+        SocksCommandReplyFW reply = new SocksCommandReplyFW().wrap(buffer, 0, length);
+
+        assertEquals(5, reply.reply());
+        assertEquals("example.com", reply.address().domainName().asString());
+        assertEquals(80, reply.port());
+    }
+
+    @Test
+    public void shouldReuseRouteExBuilder() throws Exception
+    {
+        SocksFunctions.SocksRouteExBuilder builder = SocksFunctions.routeEx();
+        builder.address("example.com").port(8080).build();
+        builder.build();
+
+        assertSame(builder, SocksFunctions.routeEx());
+        assertNotSame(builder, SocksFunctions.routeEx());
+    }
+
+    @Test
+    public void shouldReuseBeginExBuilder() throws Exception
+    {
+        SocksFunctions.SocksBeginExBuilder builder = SocksFunctions.beginEx();
+        builder.typeId(0x01).address("example.com").port(8080).build();
+
+        SocksFunctions.SocksBeginExBuilder reused = SocksFunctions.beginEx();
+        byte[] bytes = reused.ipv4(0x7f000001).port(80).build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertSame(builder, reused);
+        assertEquals(0x00, beginEx.typeId());
+        assertEquals(KIND_IPV4_ADDRESS, beginEx.address().kind());
+        assertEquals(80, beginEx.port());
+    }
+
+    @Test
+    public void shouldNotPoolMoreBeginExBuildersThanLimit() throws Exception
+    {
+        List<SocksFunctions.SocksBeginExBuilder> builders = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+        {
+            builders.add(SocksFunctions.beginEx());
+        }
+        for (SocksFunctions.SocksBeginExBuilder builder : builders)
+        {
+            builder.typeId(0x01).address("example.com").port(8080).build();
+        }
+
+        Set<SocksFunctions.SocksBeginExBuilder> pooled = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 64; i++)
+        {
+            pooled.add(SocksFunctions.beginEx());
+        }
+        pooled.retainAll(builders);
+
+        assertTrue(pooled.size() < builders.size());
+    }
+
+    @Test
+    public void shouldCacheRouteEx() throws Exception
+    {
+        long hits = SocksFunctions.extensionCacheHits();
+        long misses = SocksFunctions.extensionCacheMisses();
+
+        byte[] routeEx1 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] routeEx2 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] routeEx3 = SocksFunctions.routeEx()
+                                        .address("cached.example.com")
+                                        .port(8081)
+                                        .build();
+
+        assertNotSame(routeEx1, routeEx2);
+        assertArrayEquals(routeEx1, routeEx2);
+        assertNotSame(routeEx1, routeEx3);
+        assertEquals(hits + 1, SocksFunctions.extensionCacheHits());
+        assertEquals(misses + 2, SocksFunctions.extensionCacheMisses());
+    }
+
+    @Test
+    public void shouldNotExposeCachedRouteEx() throws Exception
+    {
+        byte[] routeEx1 = SocksFunctions.routeEx()
+                                        .address("copied.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] expected = routeEx1.clone();
+        routeEx1[routeEx1.length - 1] ^= 0xff;
+
+        byte[] routeEx2 = SocksFunctions.routeEx()
+                                        .address("copied.example.com")
+                                        .port(8080)
+                                        .build();
+        routeEx2[routeEx2.length - 1] ^= 0xff;
+
+        byte[] routeEx3 = SocksFunctions.routeEx()
+                                        .address("copied.example.com")
+                                        .port(8080)
+                                        .build();
+
+        assertArrayEquals(expected, routeEx3);
+    }
+
+    @Test
+    public void shouldCacheBeginExByTypeId() throws Exception
+    {
+        long hits = SocksFunctions.extensionCacheHits();
+        long misses = SocksFunctions.extensionCacheMisses();
+
+        byte[] beginEx1 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] beginEx2 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        byte[] beginEx3 = SocksFunctions.beginEx()
+                                        .typeId(0x02)
+                                        .address("cached.example.com")
+                                        .port(8080)
+                                        .build();
+        DirectBuffer buffer = new UnsafeBuffer(beginEx3);
+        SocksBeginExFW beginEx = new SocksBeginExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertNotSame(beginEx1, beginEx2);
+        assertArrayEquals(beginEx1, beginEx2);
+        assertNotSame(beginEx1, beginEx3);
+        assertEquals(0x02, beginEx.typeId());
+        assertEquals(hits + 1, SocksFunctions.extensionCacheHits());
+        assertEquals(misses + 2, SocksFunctions.extensionCacheMisses());
+    }
+
+    @Test
+    public void shouldNotCacheBeginExWithIpv4AddressInt() throws Exception
+    {
+        long hits = SocksFunctions.extensionCacheHits();
+        long misses = SocksFunctions.extensionCacheMisses();
+
+        byte[] beginEx1 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .address("example.com")
+                                        .ipv4(0x7f000001)
+                                        .port(8080)
+                                        .build();
+        byte[] beginEx2 = SocksFunctions.beginEx()
+                                        .typeId(0x01)
+                                        .ipv4(0x7f000001)
+                                        .port(8080)
+                                        .build();
+
+        assertNotSame(beginEx1, beginEx2);
+        assertArrayEquals(beginEx1, beginEx2);
+        assertEquals(hits, SocksFunctions.extensionCacheHits());
+        assertEquals(misses, SocksFunctions.extensionCacheMisses());
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedRouteEx() throws Exception
+    {
+        byte[] routeEx = SocksFunctions.routeEx()
+                                       .address("evicted.example.com")
+                                       .port(0)
+                                       .build();
+        for (int port = 1; port <= 2048; port++)
+        {
+            SocksFunctions.routeEx()
+                          .address("evicted.example.com")
+                          .port(port)
+                          .build();
+        }
+        long misses = SocksFunctions.extensionCacheMisses();
+
+        byte[] evicted = SocksFunctions.routeEx()
+                                       .address("evicted.example.com")
+                                       .port(0)
+                                       .build();
+
+        assertNotSame(routeEx, evicted);
+        assertArrayEquals(routeEx, evicted);
+        assertEquals(misses + 1, SocksFunctions.extensionCacheMisses());
+    }
+
     @Test(expected = AssertionError.class)
     public void shouldNotParseByteWithInvalidLength() throws Exception
     {
-        parseByte("00001", 10);
+        parseByte("00001", 0, 5, 10);
+    }
+
+    @Test(expected = AssertionError.class)
+    public void shouldNotParseShortWithInvalidLength() throws Exception
+    {
+        parseShort("00001", 0, 5, 16);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidDomainName() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("-example.com")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithInvalidDomainName() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("-example.com")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidIpv4Address() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("127.0.0.1001")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithInvalidIpv4Address() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("127.0.0.1.1")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithExtraGroup() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("2001:0db8:85a3:0000:0000:8a2e:0370:73345")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithInvalidGroup() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("::73344")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithExtraGroup() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("2001:0db8:85a3:0000:0000:8a2e:0370:7334:7334")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidGroup() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("::73344")
+                      .port(8080)
+                      .build();
     }
 
-    @Test(expected = AssertionError.class)
-    public void shouldNotParseShortWithInvalidLength() throws Exception
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithEmpty() throws Exception
     {
-        parseShort("00001", 10);
+        SocksFunctions.routeEx()
+                      .address("")
+                      .port(8080)
+                      .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildRouteExWithInvalidDomainName() throws Exception
+    public void shouldNotBuildBeginExWithInvalidIpv4Octet() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("127.0.0.256")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithMissingIpv4Octet() throws Exception
     {
         SocksFunctions.routeEx()
-                      .address("-example.com")
+                      .address("127.0.0")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildBeginExWithInvalidDomainName() throws Exception
+    public void shouldNotBuildBeginExWithEmptyIpv4Octet() throws Exception
     {
         SocksFunctions.beginEx()
                       .typeId(0)
-                      .address("-example.com")
+                      .address("127..0.1")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildRouteExWithInvalidIpv4Address() throws Exception
+    public void shouldNotBuildRouteExWithUppercaseIpv6Group() throws Exception
     {
         SocksFunctions.routeEx()
-                      .address("127.0.0.1001")
+                      .address("2001:0DB8::7334")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildBeginExWithInvalidIpv4Address() throws Exception
+    public void shouldNotBuildBeginExWithTrailingIpv6Colon() throws Exception
     {
         SocksFunctions.beginEx()
                       .typeId(0)
-                      .address("127.0.0.1.1")
+                      .address("2001:0db8:85a3:0000:0000:8a2e:0370:")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildRouteExWithExtraGroup() throws Exception
+    public void shouldNotBuildRouteExWithLeadingIpv6Colon() throws Exception
     {
         SocksFunctions.routeEx()
-                      .address("2001:0db8:85a3:0000:0000:8a2e:0370:73345")
+                      .address(":2001::7334")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildBeginExWithInvalidGroup() throws Exception
+    public void shouldNotBuildBeginExWithRepeatedIpv6Compression() throws Exception
     {
         SocksFunctions.beginEx()
                       .typeId(0)
-                      .address("::73344")
+                      .address("2001::85a3::7334")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildBeginExWithExtraGroup() throws Exception
+    public void shouldNotBuildRouteExWithTripleIpv6Colon() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("2001:::7334")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithCompressedExtraGroup() throws Exception
     {
         SocksFunctions.beginEx()
                       .typeId(0)
-                      .address("2001:0db8:85a3:0000:0000:8a2e:0370:7334:7334")
+                      .address("1:2:3:4::5:6:7:8")
                       .port(8080)
                       .build();
     }
 
     @Test(expected = IllegalArgumentException.class)
-    public void shouldNotBuildRouteExWithInvalidGroup() throws Exception
+    public void shouldNotBuildRouteExWithCompressedInvalidCharacter() throws Exception
     {
         SocksFunctions.routeEx()
-                      .address("::73344")
+                      .address("2001::73g4")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithLongDomainName() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidDomainNameCharacter() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example_host.com")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithTrailingDomainNameHyphen() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .address("example-")
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithInvalidIpv4AddressBytes() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .ipv4Address(new byte[]{127, 0, 0})
+                      .port(8080)
+                      .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildBeginExWithInvalidIpv6AddressBytes() throws Exception
+    {
+        SocksFunctions.beginEx()
+                      .typeId(0)
+                      .ipv6Address(new byte[8])
+                      .port(8080)
+                      .build();
+    }
+
+    @Test
+    public void shouldBuildPayload() throws Exception
+    {
+        byte[] payload = SocksFunctions.payload(512);
+
+        assertEquals(512, payload.length);
+        assertEquals(0, payload[0]);
+        assertEquals((byte) 250, payload[250]);
+        assertEquals(0, payload[251]);
+        assertEquals((byte) 9, payload[511]);
+    }
+
+    @Test
+    public void shouldResolvePayloadFunction() throws Exception
+    {
+        String expressionText = "${socks:payload(8192)}";
+        ValueExpression expression = factory.createValueExpression(ctx, expressionText, byte[].class);
+        byte[] payload = (byte[]) expression.getValue(ctx);
+
+        assertArrayEquals(SocksFunctions.payload(8192), payload);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithMaxMultiplexedSessions() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .maxMultiplexedSessions(256)
+                                     .build();
+        byte[] again = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        SocksRouteExFW routeExAgain = new SocksRouteExFW().wrap(new UnsafeBuffer(again), 0, again.length);
+
+        assertEquals(256, routeEx.maxMultiplexedSessions());
+        assertEquals(0, routeExAgain.maxMultiplexedSessions());
+        assertNotSame(bytes, again);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithTooManyMultiplexedSessions() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .maxMultiplexedSessions(0x10000);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithNegativeCacheTtl() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .negativeCacheTtl(1000L)
+                                     .build();
+        byte[] again = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .negativeCacheTtl(1000L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(1000L, routeEx.negativeCacheTtl());
+        assertEquals(0, routeEx.maxMultiplexedSessions());
+        assertEquals("example.com", routeEx.address().domainName().asString());
+        assertNotSame(bytes, again);
+        assertArrayEquals(bytes, again);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativeCacheTtlOverflow() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .negativeCacheTtl(0x1_0000_0000L);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithMaxBufferedBytes() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .maxBufferedBytes(8192L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(8192L, routeEx.maxBufferedBytes());
+        assertEquals(0L, routeEx.negativeCacheTtl());
+        assertEquals(8080, routeEx.port());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativeMaxBufferedBytes() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .maxBufferedBytes(-1L);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithTimeouts() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .handshakeTimeout(1000L)
+                                     .idleTimeout(300000L)
+                                     .build();
+        byte[] again = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .idleTimeout(300000L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+        SocksRouteExFW routeExAgain = new SocksRouteExFW().wrap(new UnsafeBuffer(again), 0, again.length);
+
+        assertEquals(1000L, routeEx.handshakeTimeout());
+        assertEquals(300000L, routeEx.idleTimeout());
+        assertEquals(0L, routeExAgain.handshakeTimeout());
+        assertEquals(300000L, routeExAgain.idleTimeout());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativeIdleTimeout() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .idleTimeout(-1L);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithMaxConcurrentSessions() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .maxConcurrentSessions(50000L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(50000L, routeEx.maxConcurrentSessions());
+        assertEquals(0, routeEx.maxMultiplexedSessions());
+        assertEquals("example.com", routeEx.address().domainName().asString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithTooManyConcurrentSessions() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .maxConcurrentSessions(0x1_0000_0000L);
+    }
+
+    @Test
+    public void shouldBuildRouteExWithBandwidth() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .bandwidth(8192L)
+                                     .bandwidthBurst(16384L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(8192L, routeEx.initialBandwidth());
+        assertEquals(8192L, routeEx.replyBandwidth());
+        assertEquals(16384L, routeEx.bandwidthBurst());
+    }
+
+    @Test
+    public void shouldBuildRouteExWithBandwidthPerDirection() throws Exception
+    {
+        byte[] bytes = SocksFunctions.routeEx()
+                                     .address("example.com")
+                                     .port(8080)
+                                     .bandwidth(8192L)
+                                     .replyBandwidth(65536L)
+                                     .build();
+        SocksRouteExFW routeEx = new SocksRouteExFW().wrap(new UnsafeBuffer(bytes), 0, bytes.length);
+
+        assertEquals(8192L, routeEx.initialBandwidth());
+        assertEquals(65536L, routeEx.replyBandwidth());
+        assertEquals(0L, routeEx.bandwidthBurst());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildRouteExWithNegativeBandwidth() throws Exception
+    {
+        SocksFunctions.routeEx()
+                      .address("example.com")
+                      .port(8080)
+                      .initialBandwidth(-1L);
+    }
+
+    @Test
+    public void shouldBuildSessionExOpen() throws Exception
+    {
+        byte[] bytes = SocksFunctions.sessionEx()
+                                     .typeId(0x01)
+                                     .open(1L)
+                                     .address("example.com")
+                                     .port(8080)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksSessionExFW sessionEx = new SocksSessionExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(0x01, sessionEx.typeId());
+        assertEquals(SocksSessionExFW.KIND_OPEN, sessionEx.kind());
+        assertEquals(1L, sessionEx.open().sessionId());
+        assertEquals("example.com", sessionEx.open().address().domainName().asString());
+        assertEquals(8080, sessionEx.open().port());
+        assertEquals(bytes.length, sessionEx.sizeof());
+    }
+
+    @Test
+    public void shouldBuildSessionExData() throws Exception
+    {
+        byte[] bytes = SocksFunctions.sessionEx()
+                                     .typeId(0x01)
+                                     .data(2L)
+                                     .build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksSessionExFW sessionEx = new SocksSessionExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(SocksSessionExFW.KIND_DATA, sessionEx.kind());
+        assertEquals(2L, sessionEx.data().sessionId());
+    }
+
+    @Test
+    public void shouldBuildSessionExEndAndResetIntoBuffer() throws Exception
+    {
+        MutableDirectBuffer buffer = new UnsafeBuffer(new byte[64]);
+        int endLength = SocksFunctions.sessionEx()
+                                      .typeId(0x01)
+                                      .end(0xffff_ffffL)
+                                      .buildInto(buffer, 8);
+        SocksSessionExFW endEx = new SocksSessionExFW().wrap(buffer, 8, 8 + endLength);
+
+        assertEquals(SocksSessionExFW.KIND_END, endEx.kind());
+        assertEquals(0xffff_ffffL, endEx.end().sessionId());
+
+        int resetLength = SocksFunctions.sessionEx()
+                                        .typeId(0x01)
+                                        .reset(3L)
+                                        .buildInto(buffer, 8);
+        SocksSessionExFW resetEx = new SocksSessionExFW().wrap(buffer, 8, 8 + resetLength);
+
+        assertEquals(SocksSessionExFW.KIND_RESET, resetEx.kind());
+        assertEquals(3L, resetEx.reset().sessionId());
+        assertEquals(endLength, resetLength);
+    }
+
+    @Test
+    public void shouldBuildSessionExWithSessionIdAtFixedOffset() throws Exception
+    {
+        byte[] open = SocksFunctions.sessionEx().typeId(0x01).open(7L).address("192.168.0.1").port(32767).build();
+        byte[] data = SocksFunctions.sessionEx().typeId(0x01).data(7L).build();
+        DirectBuffer openBuffer = new UnsafeBuffer(open);
+        DirectBuffer dataBuffer = new UnsafeBuffer(data);
+        SocksSessionExFW openEx = new SocksSessionExFW().wrap(openBuffer, 0, openBuffer.capacity());
+        SocksSessionExFW dataEx = new SocksSessionExFW().wrap(dataBuffer, 0, dataBuffer.capacity());
+
+        assertEquals(openEx.open().offset(), dataEx.data().offset());
+        assertEquals(7L, openBuffer.getInt(openEx.open().offset()) & 0xffff_ffffL);
+        assertEquals(7L, dataBuffer.getInt(dataEx.data().offset()) & 0xffff_ffffL);
+    }
+
+    @Test
+    public void shouldReuseSessionExBuilder() throws Exception
+    {
+        SocksFunctions.SocksSessionExBuilder builder = SocksFunctions.sessionEx();
+        builder.typeId(0x01).open(1L).address("example.com").port(8080).build();
+
+        SocksFunctions.SocksSessionExBuilder reused = SocksFunctions.sessionEx();
+        byte[] bytes = reused.end(1L).build();
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksSessionExFW sessionEx = new SocksSessionExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertSame(builder, reused);
+        assertEquals(0x00, sessionEx.typeId());
+        assertEquals(SocksSessionExFW.KIND_END, sessionEx.kind());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotBuildSessionExWithInvalidSessionId() throws Exception
+    {
+        SocksFunctions.sessionEx()
+                      .typeId(0x01)
+                      .data(0x1_0000_0000L);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotBuildSessionExOpenWithoutAddress() throws Exception
+    {
+        SocksFunctions.sessionEx()
+                      .typeId(0x01)
+                      .open(1L)
                       .port(8080)
                       .build();
     }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotBuildSessionExWithoutKind() throws Exception
+    {
+        SocksFunctions.sessionEx()
+                      .typeId(0x01)
+                      .build();
+    }
+
+    @Test
+    public void shouldResolveSessionExFunction() throws Exception
+    {
+        String expressionText = "${socks:sessionEx().typeId(1).reset(2).build()}";
+        ValueExpression expression = factory.createValueExpression(ctx, expressionText, byte[].class);
+        byte[] bytes = (byte[]) expression.getValue(ctx);
+        DirectBuffer buffer = new UnsafeBuffer(bytes);
+        SocksSessionExFW sessionEx = new SocksSessionExFW().wrap(buffer, 0, buffer.capacity());
+
+        assertEquals(SocksSessionExFW.KIND_RESET, sessionEx.kind());
+        assertEquals(2L, sessionEx.reset().sessionId());
+    }
 }
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
 import org.junit.rules.TestRule;
 import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.ScriptProperty;
 import org.kaazing.k3po.junit.annotation.Specification;
 import org.kaazing.k3po.junit.rules.K3poRule;
 
@@ -266,4 +267,60 @@ public class BindIT
         k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${scripts}/bound.domain.fragmented/client",
+        "${scripts}/bound.domain.fragmented/server"})
+    public void shouldBindDomainFragmented() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.client.write.data.coalesced/client",
+        "${scripts}/accepted.then.client.write.data.coalesced/server"})
+    public void shouldAcceptThenClientWritesDataCoalesced() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.client.write.data.exceeding.window/client",
+        "${scripts}/accepted.then.client.write.data.exceeding.window/server"})
+    public void shouldAcceptThenClientWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.server.write.data.exceeding.window/client",
+        "${scripts}/accepted.then.server.write.data.exceeding.window/server"})
+    public void shouldAcceptThenServerWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/accepted.then.exchange.bulk.data/client",
+        "${scripts}/accepted.then.exchange.bulk.data/server"})
+    @ScriptProperty("totalSize 1048576")
+    public void shouldAcceptThenExchangeBulkData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_CLIENT_REVERSE");
+        k3po.finish();
+    }
 }
@@ -23,6 +23,7 @@ import org.junit.Test;
 import org.junit.rules.DisableOnDebug;
 import org.junit.rules.TestRule;
 import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.ScriptProperty;
 import org.kaazing.k3po.junit.annotation.Specification;
 import org.kaazing.k3po.junit.rules.K3poRule;
 
@@ -189,4 +190,220 @@ public class ConnectIT
         k3po.notifyBarrier("ROUTED_SERVER");
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.fragmented/client",
+        "${scripts}/connected.domain.fragmented/server"})
+    public void shouldConnectDomainFragmented() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.ipv4.fragmented/client",
+        "${scripts}/connected.ipv4.fragmented/server"})
+    public void shouldConnectIPv4Fragmented() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.ipv6.fragmented/client",
+        "${scripts}/connected.ipv6.fragmented/server"})
+    public void shouldConnectIPv6Fragmented() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.coalesced/client",
+        "${scripts}/connected.then.client.write.data.coalesced/server"})
+    public void shouldConnectThenClientWritesDataCoalesced() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.pipelined.then.client.write.data/client",
+        "${scripts}/connected.pipelined.then.client.write.data/server"})
+    public void shouldConnectPipelinedThenClientWritesData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.pipelined.connection.refused/client",
+        "${scripts}/rejected.pipelined.connection.refused/server"})
+    public void shouldRejectPipelinedWithConnectionRefused() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.client.write.data.exceeding.window/client",
+        "${scripts}/connected.then.client.write.data.exceeding.window/server"})
+    public void shouldConnectThenClientWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.server.write.data.exceeding.window/client",
+        "${scripts}/connected.then.server.write.data.exceeding.window/server"})
+    public void shouldConnectThenServerWritesDataExceedingWindow() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.exchange.bulk.data/client",
+        "${scripts}/connected.then.exchange.bulk.data/server"})
+    @ScriptProperty("totalSize 1048576")
+    public void shouldConnectThenExchangeBulkData() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.cache.hit/client",
+        "${scripts}/connected.domain.resolved.cache.hit/server"})
+    public void shouldConnectDomainResolvedOnCacheHit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.cache.expired/client",
+        "${scripts}/connected.domain.resolved.cache.expired/server"})
+    public void shouldConnectDomainResolvedOnCacheExpired() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.awaitBarrier("FIRST_CLOSED");
+        k3po.notifyBarrier("TTL_EXPIRED");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.domain.resolved.coalesced/client",
+        "${scripts}/connected.domain.resolved.coalesced/server"})
+    public void shouldConnectDomainResolvedCoalesced() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.connection.refused.cache.hit/client",
+        "${scripts}/rejected.connection.refused.cache.hit/server"})
+    public void shouldRejectConnectionRefusedOnCacheHit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.host.unreachable.cache.hit/client",
+        "${scripts}/rejected.host.unreachable.cache.hit/server"})
+    public void shouldRejectHostUnreachableOnCacheHit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.connection.refused.cache.expired/client",
+        "${scripts}/rejected.connection.refused.cache.expired/server"})
+    public void shouldConnectAfterConnectionRefusedCacheExpired() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.awaitBarrier("FIRST_CLOSED");
+        k3po.notifyBarrier("TTL_EXPIRED");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.then.idle.timeout/client",
+        "${scripts}/connected.then.idle.timeout/nukleus",
+        "${scripts}/connected.then.idle.timeout/server"})
+    @ScriptProperty("serverAccept \"nukleus://streams/target#0\"")
+    public void shouldAbortWhenConnectedIdleTimesOut() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.concurrent.sessions.exceeded/client",
+        "${scripts}/rejected.concurrent.sessions.exceeded/server"})
+    public void shouldRejectWhenConcurrentSessionsExceeded() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.concurrent.sessions.not.allowed/client",
+        "${scripts}/rejected.concurrent.sessions.not.allowed/server"})
+    public void shouldRejectNotAllowedWhenConcurrentSessionsExceeded() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/connected.after.concurrent.session.closed/client",
+        "${scripts}/connected.after.concurrent.session.closed/server"})
+    public void shouldConnectAfterConcurrentSessionClosed() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
 }
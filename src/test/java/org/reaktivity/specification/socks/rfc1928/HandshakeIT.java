@@ -68,4 +68,37 @@ public class HandshakeIT
         k3po.notifyBarrier("ROUTED_SERVER");
         k3po.finish();
     }
+
+    @Test
+    @Specification({
+        "${scripts}/rejected.pipelined.methods.not.acceptable/client",
+        "${scripts}/rejected.pipelined.methods.not.acceptable/server"})
+    public void shouldRejectPipelinedWithMethodsNotAcceptable() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/timeout.no.greeting/client",
+        "${scripts}/timeout.no.greeting/server"})
+    public void shouldAbortWhenHandshakeTimesOutWithoutGreeting() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/timeout.partial.greeting/client",
+        "${scripts}/timeout.partial.greeting/server"})
+    public void shouldAbortWhenHandshakeTimesOutWithPartialGreeting() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
 }
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2016-2021 The Reaktivity Project
+ *
+ * The Reaktivity Project licenses this file to you under the Apache License,
+ * version 2.0 (the "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at:
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+package org.reaktivity.specification.socks.rfc1928;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.rules.RuleChain.outerRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.DisableOnDebug;
+import org.junit.rules.TestRule;
+import org.junit.rules.Timeout;
+import org.kaazing.k3po.junit.annotation.Specification;
+import org.kaazing.k3po.junit.rules.K3poRule;
+
+public class UdpIT
+{
+    private final K3poRule k3po = new K3poRule()
+        .addScriptRoot("scripts", "org/reaktivity/specification/socks/rfc1928/udp");
+
+    private final TestRule timeout = new DisableOnDebug(new Timeout(10, SECONDS));
+
+    @Rule
+    public final TestRule chain = outerRule(k3po).around(timeout);
+
+    @Test
+    @Specification({
+        "${scripts}/associated.ipv4/client",
+        "${scripts}/associated.ipv4/server"})
+    public void shouldAssociateIPv4() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.datagram/client",
+        "${scripts}/associated.then.client.write.datagram/server"})
+    public void shouldAssociateThenClientWritesDatagram() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.server.write.datagram/client",
+        "${scripts}/associated.then.server.write.datagram/server"})
+    public void shouldAssociateThenServerWritesDatagram() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.close/client",
+        "${scripts}/associated.then.client.close/server"})
+    public void shouldAssociateThenClientCloses() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.fragmented.datagram/client",
+        "${scripts}/associated.then.client.write.fragmented.datagram/server"})
+    public void shouldAssociateThenClientWritesFragmentedDatagram() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.out.of.order.fragments/client",
+        "${scripts}/associated.then.client.write.out.of.order.fragments/server"})
+    public void shouldAssociateThenClientWritesOutOfOrderFragments() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.fragments.exceeding.limit/client",
+        "${scripts}/associated.then.client.write.fragments.exceeding.limit/server"})
+    public void shouldAssociateThenClientWritesFragmentsExceedingLimit() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.abandoned.fragments/client",
+        "${scripts}/associated.then.client.write.abandoned.fragments/server"})
+    public void shouldAssociateThenClientWritesAbandonedFragments() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.finish();
+    }
+
+    @Test
+    @Specification({
+        "${scripts}/associated.then.client.write.expired.fragments/client",
+        "${scripts}/associated.then.client.write.expired.fragments/server"})
+    public void shouldAssociateThenClientWritesExpiredFragments() throws Exception
+    {
+        k3po.start();
+        k3po.notifyBarrier("ROUTED_SERVER");
+        k3po.awaitBarrier("FRAGMENT_QUEUED");
+        k3po.notifyBarrier("REASSEMBLY_EXPIRED");
+        k3po.finish();
+    }
+}